@@ -0,0 +1,79 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.BatchOrder;
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting {@link #EVENTS} events of one type one by one against {@link IEventBus#postAll}, in both batch orders.
+ * Both sides allocate the same events, scores are per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchPostBenchmark
+{
+    private static final int EVENTS = 1000;
+
+    @Param({"1", "10"})
+    public int listeners;
+
+    @Param({"EVENT_MAJOR", "LISTENER_MAJOR"})
+    public BatchOrder order;
+
+    private IEventBus bus;
+
+    @Setup
+    public void setup()
+    {
+        bus = BusBuilder.builder().setBatchOrder(order).build();
+        for (int x = 0; x < listeners; x++)
+        {
+            bus.register(new Subscribers());
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        bus.shutdown();
+    }
+
+    private static Event[] events()
+    {
+        Event[] events = new Event[EVENTS];
+        for (int i = 0; i < EVENTS; i++)
+        {
+            events[i] = new CancelableEvent();
+        }
+        return events;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int postEach()
+    {
+        int cancelled = 0;
+        for (Event event : events())
+        {
+            if (bus.post(event))
+                cancelled++;
+        }
+        return cancelled;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public boolean[] postAll()
+    {
+        return bus.postAll(events());
+    }
+}
@@ -0,0 +1,270 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.GenericEvent;
+
+/**
+ * Events used by the benchmarks. The benchmarks run without the modlauncher transformer,
+ * so the ListenerList plumbing that EventSubscriptionTransformer would add is written out by hand.
+ */
+public class BenchmarkEvents
+{
+    public static class PlainEvent extends Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class CancelableEvent extends Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        public boolean isCancelable()
+        {
+            return true;
+        }
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class GenericBenchEvent<T> extends GenericEvent<T>
+    {
+        private static ListenerList LISTENER_LIST;
+
+        public GenericBenchEvent()
+        {
+            super(null);
+        }
+
+        public GenericBenchEvent(Class<T> type)
+        {
+            super(type);
+        }
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth1Event extends Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth2Event extends Depth1Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth3Event extends Depth2Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth4Event extends Depth3Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth5Event extends Depth4Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth6Event extends Depth5Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth7Event extends Depth6Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class Depth8Event extends Depth7Event
+    {
+        private static ListenerList LISTENER_LIST;
+
+        @Override
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+
+        @Override
+        public ListenerList getListenerList()
+        {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.PlainEvent;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Defines distinct subscriber classes in a fresh class loader, so registration benchmarks pay for
+ * a new handler class per method like a real startup does rather than hitting the wrapper cache.
+ */
+public class GeneratedSubscribers extends ClassLoader
+{
+    private static final String EVENT_DESC = Type.getDescriptor(PlainEvent.class);
+    private static final String SUBSCRIBE_DESC = Type.getDescriptor(SubscribeEvent.class);
+
+    public GeneratedSubscribers()
+    {
+        super(GeneratedSubscribers.class.getClassLoader());
+    }
+
+    /**
+     * @return An instance of each of count new classes, every one with a single {@link SubscribeEvent} method for {@link PlainEvent}
+     */
+    public Object[] create(int count)
+    {
+        Object[] ret = new Object[count];
+        for (int x = 0; x < count; x++)
+        {
+            String name = "net/minecraftforge/eventbus/benchmarks/generated/Subscriber" + x;
+            byte[] data = generate(name);
+            try
+            {
+                ret[x] = defineClass(name.replace('/', '.'), data, 0, data.length).newInstance();
+            }
+            catch (InstantiationException | IllegalAccessException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        return ret;
+    }
+
+    private static byte[] generate(String name)
+    {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", null);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "onPlain", "(" + EVENT_DESC + ")V", null, null);
+        mv.visitAnnotation(SUBSCRIBE_DESC, true).visitEnd();
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
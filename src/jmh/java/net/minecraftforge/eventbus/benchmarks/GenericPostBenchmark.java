@@ -0,0 +1,68 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting a generic event with {@link #LISTENERS} listeners spread evenly over a number of filter types,
+ * so only a share of them match any single post.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericPostBenchmark
+{
+    private static final int LISTENERS = 400;
+
+    @Param({"1", "10", "50"})
+    public int types;
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private IEventBus bus;
+    private Class<?>[] filters;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        bus = BusBuilder.builder().setCompiledDispatch(compiled).build();
+        filters = new Class<?>[types];
+        for (int i = 0; i < types; i++)
+        {
+            // int[], int[][], ... as an easy supply of distinct classes
+            filters[i] = Array.newInstance(int.class, new int[i + 1]).getClass();
+        }
+        for (int i = 0; i < LISTENERS; i++)
+        {
+            Class<GenericBenchEvent<Object>> eventType = (Class<GenericBenchEvent<Object>>)(Class<?>)GenericBenchEvent.class;
+            bus.addGenericListener((Class<Object>)filters[i % types], EventPriority.values()[i % EventPriority.values().length], false, eventType, e -> {});
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        bus.shutdown();
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean post()
+    {
+        Class<?> filter = filters[next];
+        next = next + 1 == filters.length ? 0 : next + 1;
+        return bus.post(new GenericBenchEvent(filter));
+    }
+}
@@ -0,0 +1,117 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.HandlerFactory;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.PlainEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link HandlerFactory} backends: time and metaspace to register handlers from classes
+ * that have never been seen before, and the steady state cost of posting to them.
+ */
+@Fork(1)
+public class HandlerFactoryBenchmark
+{
+    @State(Scope.Thread)
+    public static class Startup
+    {
+        @Param({"ASM", "LAMBDA_METAFACTORY"})
+        public HandlerFactory factory;
+
+        @Param({"1000"})
+        public int handlers;
+
+        private Object[] targets;
+        // built by the benchmark, shut down after each invocation so bus IDs are recycled
+        private IEventBus bus;
+
+        @Setup(Level.Iteration)
+        public void setup()
+        {
+            targets = new GeneratedSubscribers().create(handlers);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown()
+        {
+            if (bus != null)
+                bus.shutdown();
+        }
+    }
+
+    /**
+     * Metaspace growth across one registration pass, reported next to the timing.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Metaspace
+    {
+        public long metaspaceKb;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Steady
+    {
+        @Param({"ASM", "LAMBDA_METAFACTORY"})
+        public HandlerFactory factory;
+
+        @Param({"10"})
+        public int listeners;
+
+        private IEventBus bus;
+
+        @Setup
+        public void setup()
+        {
+            bus = BusBuilder.builder().setHandlerFactory(factory).build();
+            for (int x = 0; x < listeners; x++)
+                bus.register(new Subscribers());
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            bus.shutdown();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public IEventBus registerNewClasses(Startup startup, Metaspace metaspace)
+    {
+        long before = metaspaceUsed();
+        IEventBus bus = startup.bus = BusBuilder.builder().setHandlerFactory(startup.factory).build();
+        for (Object target : startup.targets)
+            bus.register(target);
+        metaspace.metaspaceKb += (metaspaceUsed() - before) / 1024;
+        return bus;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean post(Steady steady)
+    {
+        return steady.bus.post(new PlainEvent());
+    }
+
+    private static long metaspaceUsed()
+    {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if ("Metaspace".equals(pool.getName()))
+                return pool.getUsage().getUsed();
+        }
+        return 0;
+    }
+}
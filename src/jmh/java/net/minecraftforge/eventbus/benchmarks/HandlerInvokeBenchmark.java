@@ -0,0 +1,50 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.ASMEventHandler;
+import net.minecraftforge.eventbus.api.HandlerFactory;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calling {@link ASMEventHandler#invoke} directly on a canceled event, for a listener receiving canceled events
+ * and one that doesn't. Both make the whole cancellation check, which used to read the annotation each time.
+ * Posts through a bus mostly skip this check, parallel and blocking dispatch and metered buses still make it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerInvokeBenchmark
+{
+    private ASMEventHandler receiving;
+    private ASMEventHandler skipping;
+    private CancelableEvent event;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        Subscribers subscribers = new Subscribers();
+        receiving = new ASMEventHandler(HandlerFactory.ASM, subscribers, Subscribers.class.getMethod("onCanceled", CancelableEvent.class), false);
+        skipping = new ASMEventHandler(HandlerFactory.ASM, subscribers, Subscribers.class.getMethod("onCancelable", CancelableEvent.class), false);
+        event = new CancelableEvent();
+        event.setCanceled(true);
+    }
+
+    @Benchmark
+    public CancelableEvent invokeReceiveCanceled()
+    {
+        receiving.invoke(event);
+        return event;
+    }
+
+    @Benchmark
+    public CancelableEvent invokeSkipCanceled()
+    {
+        skipping.invoke(event);
+        return event;
+    }
+}
@@ -0,0 +1,57 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting freshly allocated events against events taken from {@link IEventBus#acquire} and released afterwards.
+ * Run with {@code -PjmhProfilers=gc} to compare the allocation rates, which is what pooling is about.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolBenchmark
+{
+    @Param({"1", "10"})
+    public int listeners;
+
+    private IEventBus bus;
+
+    @Setup
+    public void setup()
+    {
+        bus = BusBuilder.builder().build();
+        for (int x = 0; x < listeners; x++)
+        {
+            bus.register(new Subscribers());
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        bus.shutdown();
+    }
+
+    @Benchmark
+    public boolean postFresh()
+    {
+        return bus.post(new CancelableEvent());
+    }
+
+    @Benchmark
+    public boolean postPooled()
+    {
+        CancelableEvent event = bus.acquire(CancelableEvent.class);
+        boolean cancelled = bus.post(event);
+        bus.release(event);
+        return cancelled;
+    }
+}
@@ -0,0 +1,122 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single {@link IEventBus#post} for each kind of listener the bus supports.
+ * Every bus is populated with {@link #listeners} listeners for the posted event, and is run both with the
+ * regular dispatch loop and with {@link BusBuilder#setCompiledDispatch compiled dispatchers}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostBenchmark
+{
+    @Param({"1", "10", "50"})
+    public int listeners;
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private IEventBus asmBus;
+    private IEventBus lambdaBus;
+    private IEventBus genericBus;
+    private IEventBus cancelableBus;
+    private IEventBus cancelingBus;
+    private IEventBus deepBus;
+    private IEventBus emptyBus;
+    private int hits;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        asmBus = createBus();
+        lambdaBus = createBus();
+        genericBus = createBus();
+        cancelableBus = createBus();
+        cancelingBus = createBus();
+        deepBus = createBus();
+        emptyBus = createBus();
+
+        for (int x = 0; x < listeners; x++)
+        {
+            asmBus.register(new Subscribers());
+            lambdaBus.addListener(EventPriority.NORMAL, false, PlainEvent.class, e -> hits++);
+            genericBus.addGenericListener(String.class, EventPriority.NORMAL, false, (Class<GenericBenchEvent<String>>)(Class<?>)GenericBenchEvent.class, e -> hits++);
+            cancelableBus.register(new Subscribers());
+            cancelingBus.register(new Subscribers());
+            deepBus.register(new Subscribers.Deep());
+        }
+        cancelingBus.addListener(EventPriority.HIGHEST, false, CancelableEvent.class, e -> e.setCanceled(true));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        for (IEventBus bus : new IEventBus[] { asmBus, lambdaBus, genericBus, cancelableBus, cancelingBus, deepBus, emptyBus })
+            bus.shutdown();
+    }
+
+    private IEventBus createBus()
+    {
+        return BusBuilder.builder().setCompiledDispatch(compiled).build();
+    }
+
+    @Benchmark
+    public boolean postAsm()
+    {
+        return asmBus.post(new PlainEvent());
+    }
+
+    @Benchmark
+    public boolean postLambda()
+    {
+        return lambdaBus.post(new PlainEvent());
+    }
+
+    @Benchmark
+    public boolean postGeneric()
+    {
+        return genericBus.post(new GenericBenchEvent<>(String.class));
+    }
+
+    @Benchmark
+    public boolean postCancelable()
+    {
+        return cancelableBus.post(new CancelableEvent());
+    }
+
+    @Benchmark
+    public boolean postCanceled()
+    {
+        return cancelingBus.post(new CancelableEvent());
+    }
+
+    @Benchmark
+    public boolean postDeepHierarchy()
+    {
+        return deepBus.post(new Depth8Event());
+    }
+
+    @Benchmark
+    public boolean postNoListeners()
+    {
+        return emptyBus.post(new PlainEvent());
+    }
+
+    @Benchmark
+    public boolean postNoListenersSupplier()
+    {
+        return emptyBus.post(PlainEvent.class, PlainEvent::new);
+    }
+}
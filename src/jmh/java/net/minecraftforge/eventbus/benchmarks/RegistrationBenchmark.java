@@ -0,0 +1,96 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.PlainEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Register and unregister churn. Each invocation fills a fresh bus with {@link #count} targets
+ * and then removes all of them again, so the cost of both halves is measured together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegistrationBenchmark
+{
+    @Param({"10", "1000", "100000"})
+    public int count;
+
+    private Object[] targets;
+    private Consumer<PlainEvent>[] consumers;
+    private int sink;
+    // built by the benchmark, shut down after each invocation so bus IDs are recycled
+    private IEventBus bus;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setup()
+    {
+        targets = new Object[count];
+        consumers = new Consumer[count];
+        for (int x = 0; x < count; x++)
+        {
+            targets[x] = new Subscribers.Churn();
+            final int id = x;
+            consumers[x] = e -> sink = id;
+        }
+        // Prime the wrapper class cache and the event's ListenerList so the first iteration isn't an outlier
+        IEventBus primer = IEventBus.create();
+        primer.register(new Subscribers.Churn());
+        primer.shutdown();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown()
+    {
+        if (bus != null)
+            bus.shutdown();
+    }
+
+    @Benchmark
+    public IEventBus registerAsm()
+    {
+        bus = IEventBus.create();
+        for (Object target : targets)
+            bus.register(target);
+        return bus;
+    }
+
+    @Benchmark
+    public IEventBus registerAllAsm()
+    {
+        bus = IEventBus.create();
+        bus.registerAll(Arrays.asList(targets));
+        return bus;
+    }
+
+    @Benchmark
+    public IEventBus registerUnregisterAsm()
+    {
+        bus = IEventBus.create();
+        for (Object target : targets)
+            bus.register(target);
+        for (Object target : targets)
+            bus.unregister(target);
+        return bus;
+    }
+
+    @Benchmark
+    public IEventBus registerUnregisterLambda()
+    {
+        bus = IEventBus.create();
+        for (Consumer<PlainEvent> consumer : consumers)
+            bus.addListener(EventPriority.NORMAL, false, PlainEvent.class, consumer);
+        for (Consumer<PlainEvent> consumer : consumers)
+            bus.unregister(consumer);
+        return bus;
+    }
+}
@@ -0,0 +1,58 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.IEventBus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup registration of classes that have never been seen before, so every subscriber method needs a new
+ * ASM wrapper. Compares registering the targets one at a time against {@link IEventBus#registerAll}, which
+ * generates the wrappers for the whole batch in parallel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupRegistrationBenchmark
+{
+    @Param({"1000", "15000"})
+    public int handlers;
+
+    private Object[] targets;
+    // built by the benchmark, shut down after each invocation so bus IDs are recycled
+    private IEventBus bus;
+
+    @Setup(Level.Invocation)
+    public void setup()
+    {
+        targets = new GeneratedSubscribers().create(handlers);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown()
+    {
+        if (bus != null)
+            bus.shutdown();
+    }
+
+    @Benchmark
+    public IEventBus registerEach()
+    {
+        bus = IEventBus.create();
+        for (Object target : targets)
+            bus.register(target);
+        return bus;
+    }
+
+    @Benchmark
+    public IEventBus registerAll()
+    {
+        bus = IEventBus.create();
+        bus.registerAll(Arrays.asList(targets));
+        return bus;
+    }
+}
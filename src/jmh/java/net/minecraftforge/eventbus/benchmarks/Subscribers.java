@@ -0,0 +1,110 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.eventbus.benchmarks.BenchmarkEvents.*;
+
+/**
+ * {@link SubscribeEvent} handlers registered through ASMEventHandler by the benchmarks.
+ * Every handler only bumps a counter so the dispatch cost dominates.
+ */
+public class Subscribers
+{
+    public int hits;
+
+    @SubscribeEvent
+    public void onPlain(PlainEvent evt)
+    {
+        hits++;
+    }
+
+    @SubscribeEvent
+    public void onCancelable(CancelableEvent evt)
+    {
+        hits++;
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOW, receiveCanceled = true)
+    public void onCanceled(CancelableEvent evt)
+    {
+        hits++;
+    }
+
+    @SubscribeEvent
+    public void onGeneric(GenericBenchEvent<String> evt)
+    {
+        hits++;
+    }
+
+    public static class Deep
+    {
+        public int hits;
+
+        @SubscribeEvent
+        public void onDepth1(Depth1Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth2(Depth2Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth3(Depth3Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth4(Depth4Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth5(Depth5Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth6(Depth6Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth7(Depth7Event evt)
+        {
+            hits++;
+        }
+
+        @SubscribeEvent
+        public void onDepth8(Depth8Event evt)
+        {
+            hits++;
+        }
+    }
+
+    public static class Churn
+    {
+        @SubscribeEvent
+        public void onPlain(PlainEvent evt)
+        {
+        }
+    }
+
+    public static class Static
+    {
+        public static int hits;
+
+        @SubscribeEvent
+        public static void onPlain(PlainEvent evt)
+        {
+            hits++;
+        }
+    }
+}
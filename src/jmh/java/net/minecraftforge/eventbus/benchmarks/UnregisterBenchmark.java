@@ -0,0 +1,65 @@
+package net.minecraftforge.eventbus.benchmarks;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.IEventBus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unloading a module: {@link #handlers} targets are unregistered from a bus while
+ * {@link #eventTypes} event types exist, most of which the targets never listened to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class UnregisterBenchmark
+{
+    @Param({"3000"})
+    public int eventTypes;
+
+    @Param({"200"})
+    public int handlers;
+
+    private ListenerList[] lists;
+    private IEventBus bus;
+    private Object[] targets;
+
+    @Setup(Level.Trial)
+    public void setupTypes()
+    {
+        // ListenerLists are global and never released, standing in for every event type loaded by the game
+        lists = new ListenerList[eventTypes];
+        for (int x = 0; x < eventTypes; x++)
+            lists[x] = new ListenerList();
+    }
+
+    @Setup(Level.Iteration)
+    public void register()
+    {
+        bus = IEventBus.create();
+        targets = new Object[handlers];
+        for (int x = 0; x < handlers; x++)
+        {
+            targets[x] = new Subscribers.Churn();
+            bus.register(targets[x]);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutdown()
+    {
+        bus.shutdown();
+    }
+
+    @Benchmark
+    public IEventBus unregisterAll()
+    {
+        for (Object target : targets)
+            bus.unregister(target);
+        return bus;
+    }
+}
@@ -24,42 +24,133 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
 
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.objectweb.asm.Opcodes.*;
 
 public class ASMEventHandler implements IEventListener
 {
-    private static int IDs = 0;
+    private static final AtomicInteger IDs = new AtomicInteger();
+    // below this many missing wrappers the fork/join overhead is more than the generation it would spread out
+    private static final int PARALLEL_THRESHOLD = 64;
     private static final String HANDLER_DESC = Type.getInternalName(IEventListener.class);
     private static final String HANDLER_FUNC_DESC = Type.getMethodDescriptor(IEventListener.class.getDeclaredMethods()[0]);
-    private static final ASMClassLoader LOADER = new ASMClassLoader();
-    private static final HashMap<Method, Class<?>> cache = new HashMap<>();
+    /**
+     * Wrappers of each class loader, shared by all the classes it defines. The map holds neither the loaders nor
+     * their wrappers strongly, those are kept by {@link #WRAPPERS} for the classes that use them, so both go away
+     * together with the loader whose classes they call.
+     */
+    private static final Map<ClassLoader, WeakReference<Wrappers>> LOADERS = new WeakHashMap<>();
+    /**
+     * Wrappers by the class declaring their method, resolved to the ones of its class loader. A wrapper loader per
+     * subscriber loader rather than per class keeps the number of loaders, and their metaspace overhead, down.
+     */
+    private static final ClassValue<Wrappers> WRAPPERS = new ClassValue<Wrappers>()
+    {
+        @Override
+        protected Wrappers computeValue(Class<?> type)
+        {
+            ClassLoader parent = type.getClassLoader() == null ? ASMEventHandler.class.getClassLoader() : type.getClassLoader();
+            synchronized (LOADERS)
+            {
+                WeakReference<Wrappers> ref = LOADERS.get(parent);
+                Wrappers wrappers = ref == null ? null : ref.get();
+                if (wrappers == null)
+                {
+                    wrappers = new Wrappers(parent);
+                    LOADERS.put(parent, new WeakReference<>(wrappers));
+                }
+                return wrappers;
+            }
+        }
+    };
 
     private final IEventListener handler;
-    private final SubscribeEvent subInfo;
+    // resolved from the annotation once, annotation methods are proxy calls
+    private final EventPriority priority;
+    private final boolean receiveCanceled;
+    private final boolean blocking;
     private String readable;
-    private java.lang.reflect.Type filter = null;
+    @Nullable
+    private final java.lang.reflect.Type filter;
 
     public ASMEventHandler(Object target, Method method, boolean isGeneric) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
-        if (Modifier.isStatic(method.getModifiers()))
-            handler = (IEventListener)createWrapper(method).newInstance();
+        this(HandlerFactory.ASM, target, method, isGeneric);
+    }
+
+    public ASMEventHandler(HandlerFactory factory, Object target, Method method, boolean isGeneric) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+        this(factory, target, method, method.getAnnotation(SubscribeEvent.class), isGeneric ? genericFilter(method) : null);
+    }
+
+    ASMEventHandler(HandlerFactory factory, Object target, SubscriberMethod subscriber) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+        this(factory, target, subscriber.getMethod(), subscriber.getPriority(), subscriber.receiveCanceled(), subscriber.isBlocking(), subscriber.getFilter());
+    }
+
+    private ASMEventHandler(HandlerFactory factory, Object target, Method method, SubscribeEvent subInfo, @Nullable java.lang.reflect.Type filter) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+        this(factory, target, method, subInfo.priority(), subInfo.receiveCanceled(), subInfo.blocking(), filter);
+    }
+
+    private ASMEventHandler(HandlerFactory factory, Object target, Method method, EventPriority priority, boolean receiveCanceled, boolean blocking, @Nullable java.lang.reflect.Type filter) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+        if (factory == HandlerFactory.LAMBDA_METAFACTORY && useLambda(method))
+        {
+            handler = LambdaHandlerFactory.create(target, method);
+            readable = "LambdaMetafactory: " + target + " " + method.getName() + Type.getMethodDescriptor(method);
+        }
         else
-            handler = (IEventListener)createWrapper(method).getConstructor(Object.class).newInstance(target);
-        subInfo = method.getAnnotation(SubscribeEvent.class);
-        readable = "ASM: " + target + " " + method.getName() + Type.getMethodDescriptor(method);
-        if (isGeneric)
         {
-            java.lang.reflect.Type type = method.getGenericParameterTypes()[0];
-            if (type instanceof ParameterizedType)
-            {
-                filter = ((ParameterizedType)type).getActualTypeArguments()[0];
-            }
+            if (Modifier.isStatic(method.getModifiers()))
+                handler = (IEventListener)createWrapper(method).newInstance();
+            else
+                handler = (IEventListener)createWrapper(method).getConstructor(Object.class).newInstance(target);
+            readable = "ASM: " + target + " " + method.getName() + Type.getMethodDescriptor(method);
         }
+        this.priority = priority;
+        this.receiveCanceled = receiveCanceled;
+        this.blocking = blocking;
+        this.filter = filter;
+    }
+
+    /**
+     * @return Whether the lambda factory can create the listener, ASM handlers are used for classes it can't reach
+     * @throws IllegalAccessException If the class can't be reached by an ASM handler either
+     */
+    private static boolean useLambda(Method method) throws IllegalAccessException
+    {
+        Class<?> owner = method.getDeclaringClass();
+        if (LambdaHandlerFactory.canCreate(owner))
+        {
+            return true;
+        }
+        if (!Modifier.isPublic(owner.getModifiers()))
+        {
+            throw new IllegalAccessException("Unable to get a private lookup for " + owner + ", and it is not public for an ASM handler");
+        }
+        return false;
+    }
+
+    @Nullable
+    private static java.lang.reflect.Type genericFilter(Method method)
+    {
+        java.lang.reflect.Type type = method.getGenericParameterTypes()[0];
+        if (type instanceof ParameterizedType)
+        {
+            return ((ParameterizedType)type).getActualTypeArguments()[0];
+        }
+        return null;
     }
 
     @SuppressWarnings("rawtypes")
@@ -68,7 +159,7 @@ public class ASMEventHandler implements IEventListener
     {
         if (handler != null)
         {
-            if (!event.isCancelable() || !event.isCanceled() || subInfo.receiveCanceled())
+            if (receiveCanceled || !event.isCancelable() || !event.isCanceled())
             {
                 if (filter == null || filter == ((IGenericEvent)event).getGenericType())
                 {
@@ -80,21 +171,70 @@ public class ASMEventHandler implements IEventListener
 
     public EventPriority getPriority()
     {
-        return subInfo.priority();
+        return priority;
+    }
+
+    boolean receiveCanceled()
+    {
+        return receiveCanceled;
+    }
+
+    boolean isBlocking()
+    {
+        return blocking;
+    }
+
+    @Nullable
+    java.lang.reflect.Type getFilter()
+    {
+        return filter;
+    }
+
+    IEventListener getHandler()
+    {
+        return handler;
     }
 
     public Class<?> createWrapper(Method callback)
     {
-        if (cache.containsKey(callback))
+        Wrappers wrappers = WRAPPERS.get(callback.getDeclaringClass());
+        return wrappers.classes.computeIfAbsent(callback, m -> {
+            String name = getUniqueName(m);
+            return wrappers.loader.define(name, generateWrapper(m, name));
+        });
+    }
+
+    /**
+     * Generates the wrapper bytecode for every callback that has no wrapper yet in parallel on the common
+     * {@link java.util.concurrent.ForkJoinPool}, then defines the classes on the calling thread. Handlers created
+     * afterwards find their wrapper cached, small batches are left to {@link #createWrapper} instead.
+     */
+    static void prepareWrappers(Collection<Method> callbacks)
+    {
+        List<Method> missing = new ArrayList<>();
+        for (Method callback : callbacks)
         {
-            return cache.get(callback);
+            if (!WRAPPERS.get(callback.getDeclaringClass()).classes.containsKey(callback))
+                missing.add(callback);
         }
+        if (missing.size() < PARALLEL_THRESHOLD)
+            return;
+
+        Map<Method, GeneratedWrapper> generated = missing.parallelStream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), GeneratedWrapper::new));
+        generated.forEach((callback, wrapper) -> {
+            Wrappers wrappers = WRAPPERS.get(callback.getDeclaringClass());
+            wrappers.classes.computeIfAbsent(callback, m -> wrappers.loader.define(wrapper.name, wrapper.data));
+        });
+    }
 
+    private static byte[] generateWrapper(Method callback, String name)
+    {
         ClassWriter cw = new ClassWriter(0);
         MethodVisitor mv;
 
         boolean isStatic = Modifier.isStatic(callback.getModifiers());
-        String name = getUniqueName(callback);
         String desc = name.replace('.',  '/');
         String instType = Type.getInternalName(callback.getDeclaringClass());
         String eventType = Type.getInternalName(callback.getParameterTypes()[0]);
@@ -146,29 +286,45 @@ public class ASMEventHandler implements IEventListener
             mv.visitEnd();
         }
         cw.visitEnd();
-        Class<?> ret = LOADER.define(name, cw.toByteArray());
-        cache.put(callback, ret);
-        return ret;
+        return cw.toByteArray();
     }
 
-    private String getUniqueName(Method callback)
+    private static String getUniqueName(Method callback)
     {
-        return String.format("%s_%d_%s_%s_%s", getClass().getName(), IDs++,
+        return String.format("%s_%d_%s_%s_%s", ASMEventHandler.class.getName(), IDs.getAndIncrement(),
                 callback.getDeclaringClass().getSimpleName(),
                 callback.getName(),
                 callback.getParameterTypes()[0].getSimpleName());
     }
 
-    private static class ASMClassLoader extends ClassLoader
+    private static final class Wrappers
     {
-        private ASMClassLoader()
+        private final ASMClassLoader loader;
+        private final ConcurrentHashMap<Method, Class<?>> classes = new ConcurrentHashMap<>();
+
+        private Wrappers(ClassLoader parent)
         {
-            super(null);
+            this.loader = new ASMClassLoader(parent);
         }
+    }
 
-        @Override
-        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
-            return Class.forName(name, resolve, Thread.currentThread().getContextClassLoader());
+    private static final class GeneratedWrapper
+    {
+        private final String name;
+        private final byte[] data;
+
+        GeneratedWrapper(Method callback)
+        {
+            this.name = getUniqueName(callback);
+            this.data = generateWrapper(callback, name);
+        }
+    }
+
+    static class ASMClassLoader extends ClassLoader
+    {
+        ASMClassLoader(ClassLoader parent)
+        {
+            super(parent);
         }
 
         Class<?> define(String name, byte[] data)
@@ -0,0 +1,170 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+import org.apache.logging.log4j.LogManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.minecraftforge.eventbus.Logging.EVENTBUS;
+
+/**
+ * Dispatch for buses with blocking dispatch. Listeners marked as blocking are handed to a virtual thread, or a
+ * bounded platform pool before Java 21, at their turn in the snapshot and the others run on the posting thread.
+ * Every blocking listener of a phase is joined before the next phase starts.
+ */
+final class BlockingDispatcher
+{
+    // Platform threads are only a fallback, enough of them to keep some blocking calls in flight without sizing per use
+    private static final int FALLBACK_THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private BlockingDispatcher()
+    {
+    }
+
+    private static ExecutorService createExecutor()
+    {
+        try
+        {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            LogManager.getLogger("EVENTBUS").debug(EVENTBUS, "Virtual threads are not available, blocking listeners use a pool of {} threads", FALLBACK_THREADS);
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(FALLBACK_THREADS, FALLBACK_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "EventBus-Blocking-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * @throws CompiledDispatcher.ListenerFailure wrapping whatever a listener threw, along with the index of that listener
+     */
+    static void invoke(EventBus bus, Event event, IEventListener[] listeners)
+    {
+        List<Future<?>> pending = new ArrayList<>();
+        RuntimeException failure = null;
+        for (int index = 0; index < listeners.length && failure == null; index++)
+        {
+            IEventListener listener = listeners[index];
+            if (listener instanceof EventPriority)
+            {
+                failure = join(pending);
+                if (failure == null)
+                {
+                    event.setPhase((EventPriority)listener);
+                }
+            }
+            else if (isBlocking(listener))
+            {
+                boolean canceled = event.isCancelable() && event.isCanceled();
+                int at = index;
+                pending.add(EXECUTOR.submit(() -> {
+                    try
+                    {
+                        ParallelDispatcher.dispatch(bus, listener, event, canceled);
+                    }
+                    catch (Throwable throwable)
+                    {
+                        throw CompiledDispatcher.failed(at, throwable);
+                    }
+                }));
+            }
+            else
+            {
+                try
+                {
+                    ParallelDispatcher.dispatch(bus, listener, event, event.isCancelable() && event.isCanceled());
+                }
+                catch (Throwable throwable)
+                {
+                    failure = CompiledDispatcher.failed(index, throwable);
+                }
+            }
+        }
+        RuntimeException blocking = join(pending);
+        failure = failure == null ? blocking : failure;
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    private static boolean isBlocking(IEventListener listener)
+    {
+        if (listener instanceof ASMEventHandler)
+            return ((ASMEventHandler)listener).isBlocking();
+        if (listener instanceof IndexedEventHandler)
+            return ((IndexedEventHandler)listener).isBlocking();
+        return false;
+    }
+
+    /**
+     * Waits for every pending listener, even after one of them failed, so none are left running into the next phase.
+     *
+     * @return The failure of the first listener that threw, if any
+     */
+    private static RuntimeException join(List<Future<?>> pending)
+    {
+        RuntimeException failure = null;
+        boolean interrupted = false;
+        for (Future<?> future : pending)
+        {
+            while (true)
+            {
+                try
+                {
+                    future.get();
+                    break;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    if (failure == null)
+                    {
+                        failure = (RuntimeException)e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        pending.clear();
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+}
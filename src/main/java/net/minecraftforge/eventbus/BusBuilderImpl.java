@@ -0,0 +1,108 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.BatchOrder;
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.HandlerFactory;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.IEventExceptionHandler;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+public final class BusBuilderImpl implements BusBuilder
+{
+    @Nullable
+    IEventExceptionHandler exceptionHandler;
+    boolean compiledDispatch;
+    boolean blockingDispatch;
+    BatchOrder batchOrder = BatchOrder.EVENT_MAJOR;
+    HandlerFactory handlerFactory = HandlerFactory.ASM;
+    @Nullable
+    Executor executor;
+    boolean metrics;
+    @Nullable
+    String metricsMBean;
+
+    @Override
+    public BusBuilder setExceptionHandler(final IEventExceptionHandler handler)
+    {
+        this.exceptionHandler = Objects.requireNonNull(handler, "EventBus exception handler can not be null");
+        return this;
+    }
+
+    @Override
+    public BusBuilder setCompiledDispatch(final boolean compiled)
+    {
+        this.compiledDispatch = compiled;
+        return this;
+    }
+
+    @Override
+    public BusBuilder setBlockingDispatch(final boolean blocking)
+    {
+        this.blockingDispatch = blocking;
+        return this;
+    }
+
+    @Override
+    public BusBuilder setBatchOrder(final BatchOrder order)
+    {
+        this.batchOrder = Objects.requireNonNull(order, "EventBus batch order can not be null");
+        return this;
+    }
+
+    @Override
+    public BusBuilder setHandlerFactory(final HandlerFactory factory)
+    {
+        this.handlerFactory = Objects.requireNonNull(factory, "EventBus handler factory can not be null");
+        return this;
+    }
+
+    @Override
+    public BusBuilder setExecutor(final Executor executor)
+    {
+        this.executor = Objects.requireNonNull(executor, "EventBus executor can not be null");
+        return this;
+    }
+
+    @Override
+    public BusBuilder setMetrics(final boolean metrics)
+    {
+        this.metrics = metrics;
+        return this;
+    }
+
+    @Override
+    public BusBuilder setMetricsMBean(final String name)
+    {
+        this.metricsMBean = Objects.requireNonNull(name, "EventBus metrics MBean name can not be null");
+        this.metrics = true;
+        return this;
+    }
+
+    @Override
+    public IEventBus build()
+    {
+        return metrics ? new MeteredEventBus(this) : new EventBus(this);
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.eventbus.api.IGenericEvent;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * A listener snapshot compiled into a single generated class.
+ *
+ * Each entry of the snapshot gets its own call site in the generated invoke method, so every call site stays
+ * monomorphic. Priority markers become direct {@link Event#setPhase} calls, and the cancellation and generic
+ * checks of {@link ASMEventHandler}, {@link IndexedEventHandler} and {@link ConsumerEventHandler} are done inline
+ * before calling their delegate directly.
+ *
+ * Snapshots larger than {@link #MAX_LISTENERS} are left to the regular dispatch loop, as a longer method would
+ * exceed the size the JIT is willing to compile.
+ */
+public final class CompiledDispatcher
+{
+    static final int MAX_LISTENERS = 128;
+
+    private static final AtomicInteger IDs = new AtomicInteger();
+    private static final String EVENT = Type.getInternalName(Event.class);
+    private static final String LISTENER = Type.getInternalName(IEventListener.class);
+    private static final String LISTENER_DESC = Type.getDescriptor(IEventListener.class);
+    private static final String GENERIC_EVENT = Type.getInternalName(IGenericEvent.class);
+    private static final String PRIORITY = Type.getInternalName(EventPriority.class);
+    private static final String PRIORITY_DESC = Type.getDescriptor(EventPriority.class);
+    private static final String CONSUMER = Type.getInternalName(Consumer.class);
+    private static final String CONSUMER_DESC = Type.getDescriptor(Consumer.class);
+    private static final String TYPE_DESC = Type.getDescriptor(java.lang.reflect.Type.class);
+    private static final String SELF = Type.getInternalName(CompiledDispatcher.class);
+
+    // locals of the generated invoke method
+    private static final int THIS = 0;
+    private static final int EVENT_VAR = 1;
+    private static final int INDEX_VAR = 2;
+    private static final int CANCELABLE_VAR = 3;
+
+    private final IEventListener[] listeners;
+    private final IEventListener invoker;
+
+    private CompiledDispatcher(IEventListener[] listeners, IEventListener invoker)
+    {
+        this.listeners = listeners;
+        this.invoker = invoker;
+    }
+
+    /**
+     * @return The listener snapshot this dispatcher was compiled from
+     */
+    IEventListener[] getListeners()
+    {
+        return listeners;
+    }
+
+    /**
+     * Fires the event at every listener of the snapshot.
+     *
+     * @throws ListenerFailure wrapping whatever a listener threw, along with the index of that listener
+     */
+    void invoke(Event event)
+    {
+        invoker.invoke(event);
+    }
+
+    /**
+     * Called by generated dispatchers when a listener throws.
+     */
+    public static RuntimeException failed(int index, Throwable throwable)
+    {
+        return new ListenerFailure(index, throwable);
+    }
+
+    static CompiledDispatcher compile(IEventListener[] listeners)
+    {
+        if (listeners.length > MAX_LISTENERS)
+        {
+            return new CompiledDispatcher(listeners, new LoopInvoker(listeners));
+        }
+
+        String name = SELF + "$Generated_" + IDs.getAndIncrement();
+        Fields args = new Fields();
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, name, null, "java/lang/Object", new String[]{ LISTENER });
+        cw.visitSource(".dynamic", null);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class)), null, null);
+        mv.visitCode();
+        Label start = new Label();
+        Label end = new Label();
+        Label handler = new Label();
+        mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, INDEX_VAR);
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, EVENT_VAR);
+        mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, "isCancelable", "()Z", false);
+        mv.visitVarInsn(ISTORE, CANCELABLE_VAR);
+
+        for (int index = 0; index < listeners.length; index++)
+        {
+            IEventListener listener = listeners[index];
+            mv.visitIntInsn(SIPUSH, index);
+            mv.visitVarInsn(ISTORE, INDEX_VAR);
+
+            if (listener instanceof EventPriority)
+            {
+                mv.visitVarInsn(ALOAD, EVENT_VAR);
+                mv.visitFieldInsn(GETSTATIC, PRIORITY, ((EventPriority)listener).name(), PRIORITY_DESC);
+                mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, "setPhase", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(EventPriority.class)), false);
+            }
+            else if (listener instanceof ASMEventHandler)
+            {
+                ASMEventHandler asm = (ASMEventHandler)listener;
+                Label skip = new Label();
+                visitChecks(cw, mv, name, args, asm.receiveCanceled(), asm.getFilter(), skip);
+                String field = addField(cw, args, asm.getHandler(), LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, THIS);
+                mv.visitFieldInsn(GETFIELD, name, field, LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, EVENT_VAR);
+                mv.visitMethodInsn(INVOKEINTERFACE, LISTENER, "invoke", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class)), true);
+                mv.visitLabel(skip);
+            }
+            else if (listener instanceof IndexedEventHandler)
+            {
+                IndexedEventHandler indexed = (IndexedEventHandler)listener;
+                Label skip = new Label();
+                visitChecks(cw, mv, name, args, indexed.receiveCanceled(), indexed.getFilter(), skip);
+                String field = addField(cw, args, indexed.getHandler(), LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, THIS);
+                mv.visitFieldInsn(GETFIELD, name, field, LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, EVENT_VAR);
+                mv.visitMethodInsn(INVOKEINTERFACE, LISTENER, "invoke", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class)), true);
+                mv.visitLabel(skip);
+            }
+            else if (listener instanceof ConsumerEventHandler)
+            {
+                ConsumerEventHandler<?> consumer = (ConsumerEventHandler<?>)listener;
+                Label skip = new Label();
+                visitChecks(cw, mv, name, args, consumer.receiveCanceled(), consumer.getFilter(), skip);
+                String field = addField(cw, args, consumer.getConsumer(), CONSUMER_DESC);
+                mv.visitVarInsn(ALOAD, THIS);
+                mv.visitFieldInsn(GETFIELD, name, field, CONSUMER_DESC);
+                mv.visitVarInsn(ALOAD, EVENT_VAR);
+                mv.visitMethodInsn(INVOKEINTERFACE, CONSUMER, "accept", "(Ljava/lang/Object;)V", true);
+                mv.visitLabel(skip);
+            }
+            else
+            {
+                String field = addField(cw, args, listener, LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, THIS);
+                mv.visitFieldInsn(GETFIELD, name, field, LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, EVENT_VAR);
+                mv.visitMethodInsn(INVOKEINTERFACE, LISTENER, "invoke", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class)), true);
+            }
+        }
+        mv.visitLabel(end);
+        mv.visitInsn(RETURN);
+        /* catch (Throwable t)
+         * {
+         *     throw CompiledDispatcher.failed(index, t);
+         * }
+         */
+        mv.visitLabel(handler);
+        mv.visitVarInsn(ILOAD, INDEX_VAR);
+        mv.visitInsn(SWAP);
+        mv.visitMethodInsn(INVOKESTATIC, SELF, "failed", Type.getMethodDescriptor(Type.getType(RuntimeException.class), Type.INT_TYPE, Type.getType(Throwable.class)), false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        visitConstructor(cw, name, args);
+        cw.visitEnd();
+
+        try
+        {
+            // only refers to bus classes, so resolve them here rather than through whichever thread posts first
+            Class<?> cls = new ASMEventHandler.ASMClassLoader(CompiledDispatcher.class.getClassLoader()).define(name.replace('/', '.'), cw.toByteArray());
+            IEventListener invoker = (IEventListener)cls.getConstructor(Object[].class).newInstance((Object)args.values.toArray());
+            return new CompiledDispatcher(listeners, invoker);
+        }
+        catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e)
+        {
+            throw new IllegalStateException("Failed to compile event dispatcher", e);
+        }
+    }
+
+    /**
+     * Emits the cancellation and generic filter checks of a listener, jumping to skip if the listener
+     * should not be called.
+     */
+    private static void visitChecks(ClassWriter cw, MethodVisitor mv, String name, Fields args, boolean receiveCanceled, java.lang.reflect.Type filter, Label skip)
+    {
+        if (!receiveCanceled)
+        {
+            // if (cancelable && event.isCanceled()) skip
+            Label run = new Label();
+            mv.visitVarInsn(ILOAD, CANCELABLE_VAR);
+            mv.visitJumpInsn(IFEQ, run);
+            mv.visitVarInsn(ALOAD, EVENT_VAR);
+            mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, "isCanceled", "()Z", false);
+            mv.visitJumpInsn(IFNE, skip);
+            mv.visitLabel(run);
+        }
+        if (filter != null)
+        {
+            // if (((IGenericEvent)event).getGenericType() != filter) skip
+            String field = addField(cw, args, filter, TYPE_DESC);
+            mv.visitVarInsn(ALOAD, EVENT_VAR);
+            mv.visitTypeInsn(CHECKCAST, GENERIC_EVENT);
+            mv.visitMethodInsn(INVOKEINTERFACE, GENERIC_EVENT, "getGenericType", Type.getMethodDescriptor(Type.getType(java.lang.reflect.Type.class)), true);
+            mv.visitVarInsn(ALOAD, THIS);
+            mv.visitFieldInsn(GETFIELD, name, field, TYPE_DESC);
+            mv.visitJumpInsn(IF_ACMPNE, skip);
+        }
+    }
+
+    private static String addField(ClassWriter cw, Fields args, Object value, String desc)
+    {
+        String field = "f" + args.values.size();
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, field, desc, null, null).visitEnd();
+        args.values.add(value);
+        args.descs.add(desc);
+        return field;
+    }
+
+    /*
+     * public <init>(Object[] args)
+     * {
+     *     super();
+     *     this.f0 = (Type)args[0];
+     *     ...
+     * }
+     */
+    private static void visitConstructor(ClassWriter cw, String name, Fields args)
+    {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        for (int x = 0; x < args.values.size(); x++)
+        {
+            String desc = args.descs.get(x);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitIntInsn(SIPUSH, x);
+            mv.visitInsn(AALOAD);
+            mv.visitTypeInsn(CHECKCAST, Type.getType(desc).getInternalName());
+            mv.visitFieldInsn(PUTFIELD, name, "f" + x, desc);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Values for the fields of the generated class, passed to its constructor in order.
+     */
+    private static class Fields
+    {
+        private final List<Object> values = new ArrayList<>();
+        private final List<String> descs = new ArrayList<>();
+    }
+
+    static class ListenerFailure extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+        private final int index;
+
+        private ListenerFailure(int index, Throwable cause)
+        {
+            super(cause);
+            this.index = index;
+        }
+
+        int getIndex()
+        {
+            return index;
+        }
+    }
+
+    /**
+     * Fallback for snapshots too large to compile.
+     */
+    private static class LoopInvoker implements IEventListener
+    {
+        private final IEventListener[] listeners;
+
+        private LoopInvoker(IEventListener[] listeners)
+        {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void invoke(Event event)
+        {
+            int index = 0;
+            try
+            {
+                for (; index < listeners.length; index++)
+                {
+                    listeners[index].invoke(event);
+                }
+            }
+            catch (Throwable throwable)
+            {
+                throw failed(index, throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.eventbus.api.IGenericEvent;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.util.function.Consumer;
+
+/**
+ * Listener for lambdas registered through {@link EventBus#addListener}.
+ * Cancellation and the generic filter are checked inline so a post doesn't allocate anything.
+ */
+public class ConsumerEventHandler<T extends Event> implements IEventListener
+{
+    private final Consumer<T> consumer;
+    // the consumer as a listener without the checks, for dispatch that makes them up front
+    private final IEventListener handler;
+    private final boolean receiveCancelled;
+    @Nullable
+    private final Type filter;
+    private final String readable;
+
+    public ConsumerEventHandler(Consumer<T> consumer, boolean receiveCancelled, @Nullable Type filter)
+    {
+        this.consumer = consumer;
+        this.handler = this::accept;
+        this.receiveCancelled = receiveCancelled;
+        this.filter = filter;
+        this.readable = "Consumer: " + consumer;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public void invoke(Event event)
+    {
+        if (!receiveCancelled && event.isCancelable() && event.isCanceled())
+        {
+            return;
+        }
+        if (filter != null && filter != ((IGenericEvent)event).getGenericType())
+        {
+            return;
+        }
+        consumer.accept((T)event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accept(Event event)
+    {
+        consumer.accept((T)event);
+    }
+
+    boolean receiveCanceled()
+    {
+        return receiveCancelled;
+    }
+
+    @Nullable
+    Type getFilter()
+    {
+        return filter;
+    }
+
+    Consumer<T> getConsumer()
+    {
+        return consumer;
+    }
+
+    IEventListener getHandler()
+    {
+        return handler;
+    }
+
+    public String toString()
+    {
+        return readable;
+    }
+}
@@ -25,72 +25,97 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nonnull;
-import java.lang.reflect.Constructor;
+import javax.annotation.Nullable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 
 import static net.minecraftforge.eventbus.Logging.EVENTBUS;
 
 public class EventBus implements IEventExceptionHandler, IEventBus {
     private static final Logger LOGGER = LogManager.getLogger("EVENTBUS");
-    private static int maxID = 0;
 
-    private ConcurrentHashMap<Object, ArrayList<IEventListener>> listeners = new ConcurrentHashMap<Object, ArrayList<IEventListener>>();
-    private final int busID = maxID++;
+    private ConcurrentHashMap<Object, ArrayList<Registration>> listeners = new ConcurrentHashMap<Object, ArrayList<Registration>>();
+    private final int busID = ListenerList.acquireBusID();
+    private volatile boolean shutdown;
     private final IEventExceptionHandler exceptionHandler;
+    private final boolean compiledDispatch;
+    private final boolean blockingDispatch;
+    private final BatchOrder batchOrder;
+    private final HandlerFactory handlerFactory;
+    private final Executor executor;
+    // parallel phases are split into fork/join tasks, so they only run on the executor if it is a pool for those
+    private final ForkJoinPool parallelPool;
 
     public EventBus()
     {
-        ListenerList.resize(busID + 1);
         exceptionHandler = this;
+        compiledDispatch = false;
+        blockingDispatch = false;
+        batchOrder = BatchOrder.EVENT_MAJOR;
+        handlerFactory = HandlerFactory.ASM;
+        executor = ForkJoinPool.commonPool();
+        parallelPool = ForkJoinPool.commonPool();
     }
 
     public EventBus(@Nonnull final IEventExceptionHandler handler)
     {
         Objects.requireNonNull(handler, "EventBus exception handler can not be null");
-        ListenerList.resize(busID + 1);
         exceptionHandler = handler;
+        compiledDispatch = false;
+        blockingDispatch = false;
+        batchOrder = BatchOrder.EVENT_MAJOR;
+        handlerFactory = HandlerFactory.ASM;
+        executor = ForkJoinPool.commonPool();
+        parallelPool = ForkJoinPool.commonPool();
     }
 
-    private void registerClass(final Class<?> clazz) {
-        Arrays.stream(clazz.getMethods()).
-                filter(m->Modifier.isStatic(m.getModifiers())).
-                filter(m->m.isAnnotationPresent(SubscribeEvent.class)).
-                forEach(m->registerListener(clazz, m, m));
+    public EventBus(final BusBuilderImpl busBuilder)
+    {
+        exceptionHandler = busBuilder.exceptionHandler == null ? this : busBuilder.exceptionHandler;
+        // metered buses time each listener through the plan, the generated dispatcher has no hook for that
+        compiledDispatch = busBuilder.compiledDispatch && !busBuilder.metrics;
+        blockingDispatch = busBuilder.blockingDispatch;
+        batchOrder = busBuilder.batchOrder;
+        handlerFactory = busBuilder.handlerFactory;
+        executor = busBuilder.executor == null ? ForkJoinPool.commonPool() : busBuilder.executor;
+        parallelPool = executor instanceof ForkJoinPool ? (ForkJoinPool)executor : ForkJoinPool.commonPool();
     }
 
-    private Optional<Method> getDeclMethod(final Class<?> clz, final Method in) {
-        try {
-            return Optional.of(clz.getDeclaredMethod(in.getName(), in.getParameterTypes()));
-        } catch (NoSuchMethodException nse) {
-            return Optional.empty();
+    private void registerClass(final Class<?> clazz) {
+        ISubscriberIndex index = SubscriberMethod.getIndex(clazz);
+        if (index != null)
+        {
+            registerIndexed(clazz, null, index, index.getStaticSubscribers());
+            return;
         }
-
+        for (SubscriberMethod subscriber : SubscriberMethod.forStatic(clazz))
+            register(clazz, subscriber);
     }
+
     private void registerObject(final Object obj) {
-        final HashSet<Class<?>> classes = new HashSet<>();
-        typesFor(obj.getClass(), classes);
-        Arrays.stream(obj.getClass().getMethods()).
-                filter(m->!Modifier.isStatic(m.getModifiers())).
-                forEach(m -> classes.stream().
-                        map(c->getDeclMethod(c, m)).
-                        filter(rm -> rm.isPresent() && rm.get().isAnnotationPresent(SubscribeEvent.class)).
-                        findFirst().
-                        ifPresent(rm->registerListener(obj, m, rm.get())));
+        ISubscriberIndex index = SubscriberMethod.getIndex(obj.getClass());
+        if (index != null)
+        {
+            registerIndexed(obj, obj, index, index.getInstanceSubscribers());
+            return;
+        }
+        for (SubscriberMethod subscriber : SubscriberMethod.forInstance(obj.getClass()))
+            register(obj, subscriber);
     }
 
-
-    private void typesFor(final Class<?> clz, final Set<Class<?>> visited) {
-        if (clz.getSuperclass() == null) return;
-        typesFor(clz.getSuperclass(),visited);
-        Arrays.stream(clz.getInterfaces()).forEach(i->typesFor(i, visited));
-        visited.add(clz);
+    private void registerIndexed(final Object target, @Nullable final Object instance, final ISubscriberIndex index, final IndexedSubscriber[] subscribers) {
+        for (IndexedSubscriber subscriber : subscribers)
+        {
+            IEventListener listener = new IndexedEventHandler(index.createListener(subscriber.getId(), instance), target, subscriber);
+            addToListeners(target, subscriber.getEventType(), listener, subscriber.getPriority());
+        }
     }
 
     @Override
@@ -108,35 +133,42 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
         }
     }
 
-    private void registerListener(final Object target, final Method method, final Method real) {
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        if (parameterTypes.length != 1)
+    @Override
+    public void registerAll(final Collection<?> targets)
+    {
+        if (handlerFactory == HandlerFactory.ASM)
         {
-            throw new IllegalArgumentException(
-                    "Method " + method + " has @SubscribeEvent annotation. " +
-                    "It has " + parameterTypes.length + " arguments, " +
-                    "but event handler methods require a single argument only."
-            );
+            ASMEventHandler.prepareWrappers(subscriberMethods(targets));
         }
+        batch(() -> targets.forEach(this::register));
+    }
 
-        Class<?> eventType = parameterTypes[0];
-
-        if (!Event.class.isAssignableFrom(eventType))
+    /**
+     * @return The methods {@link #register} would create handlers for, skipping indexed classes and registered targets
+     */
+    private List<Method> subscriberMethods(final Collection<?> targets)
+    {
+        final List<Method> methods = new ArrayList<>();
+        for (Object target : targets)
         {
-            throw new IllegalArgumentException(
-                    "Method " + method + " has @SubscribeEvent annotation, " +
-                            "but takes an argument that is not an Event subtype : " + eventType);
+            final boolean isClass = target.getClass() == Class.class;
+            final Class<?> type = isClass ? (Class<?>) target : target.getClass();
+            if (listeners.containsKey(target) || SubscriberMethod.getIndex(type) != null)
+            {
+                continue;
+            }
+            for (SubscriberMethod subscriber : isClass ? SubscriberMethod.forStatic(type) : SubscriberMethod.forInstance(type))
+            {
+                methods.add(subscriber.getMethod());
+            }
         }
-
-        register(eventType, target, real);
+        return methods;
     }
 
-    private <T extends Event> Predicate<T> passCancelled(final boolean ignored) {
-        return e-> !e.isCancelable() || ignored || !e.isCanceled();
-    }
-
-    private <T extends GenericEvent<F>, F> Predicate<T> passGenericFilter(Class<F> type) {
-        return e->e.getGenericType() == type;
+    @Override
+    public void batch(final Runnable action)
+    {
+        ListenerList.batch(action);
     }
 
     @Override
@@ -151,12 +183,12 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
 
     @Override
     public <T extends Event> void addListener(final EventPriority priority, final boolean receiveCancelled, final Consumer<T> consumer) {
-        addListener(priority, passCancelled(receiveCancelled), consumer);
+        addListener(priority, null, receiveCancelled, consumer);
     }
 
     @Override
     public <T extends Event> void addListener(final EventPriority priority, final boolean receiveCancelled, final Class<T> eventType, final Consumer<T> consumer) {
-        addListener(priority, passCancelled(receiveCancelled), eventType, consumer);
+        addListener(priority, null, receiveCancelled, eventType, consumer);
     }
 
     @Override
@@ -171,89 +203,498 @@ public class EventBus implements IEventExceptionHandler, IEventBus {
 
     @Override
     public <T extends GenericEvent<F>, F> void addGenericListener(final Class<F> genericClassFilter, final EventPriority priority, final boolean receiveCancelled, final Consumer<T> consumer) {
-        addListener(priority, passGenericFilter(genericClassFilter).and(passCancelled(receiveCancelled)), consumer);
+        addListener(priority, genericClassFilter, receiveCancelled, consumer);
     }
 
     @Override
     public <T extends GenericEvent<F>, F> void addGenericListener(final Class<F> genericClassFilter, final EventPriority priority, final boolean receiveCancelled, final Class<T> eventType, final Consumer<T> consumer) {
-        addListener(priority, passGenericFilter(genericClassFilter).and(passCancelled(receiveCancelled)), eventType, consumer);
+        addListener(priority, genericClassFilter, receiveCancelled, eventType, consumer);
     }
 
-    private <T extends Event> void addListener(final EventPriority priority, final Predicate<? super T> filter, final Class<T> eventClass, final Consumer<T> consumer) {
-        addToListeners(consumer, eventClass, e->Stream.of(e).map(eventClass::cast).filter(filter).forEach(consumer), priority);
+    private <T extends Event> void addListener(final EventPriority priority, @Nullable final Class<?> genericFilter, final boolean receiveCancelled, final Class<T> eventClass, final Consumer<T> consumer) {
+        addToListeners(consumer, eventClass, new ConsumerEventHandler<>(consumer, receiveCancelled, genericFilter), priority);
     }
 
     @SuppressWarnings("unchecked")
-    private <T extends Event> void addListener(final EventPriority priority, final Predicate<? super T> filter, final Consumer<T> consumer) {
+    private <T extends Event> void addListener(final EventPriority priority, @Nullable final Class<?> genericFilter, final boolean receiveCancelled, final Consumer<T> consumer) {
         final Class<T> eventClass = (Class<T>) TypeResolver.resolveRawArgument(Consumer.class, consumer.getClass());
         if (Objects.equals(eventClass, Event.class))
             LOGGER.warn("Attempting to add a Lambda listener with computed generic type of Event. " +
                     "Are you sure this is what you meant? NOTE : there are complex lambda forms where " +
                     "the generic type information is erased and cannot be recovered at runtime.");
-        addListener(priority, filter, eventClass, consumer);
+        addListener(priority, genericFilter, receiveCancelled, eventClass, consumer);
     }
 
-    private void register(Class<?> eventType, Object target, Method method)
+    private void register(Object target, SubscriberMethod subscriber)
     {
         try {
-            final ASMEventHandler asm = new ASMEventHandler(target, method, IGenericEvent.class.isAssignableFrom(eventType));
+            final ASMEventHandler asm = new ASMEventHandler(handlerFactory, target, subscriber);
 
-            addToListeners(target, eventType, asm, asm.getPriority());
+            addToListeners(target, subscriber.getEventType(), asm, subscriber.getPriority());
         } catch (IllegalAccessException | InstantiationException | NoSuchMethodException | InvocationTargetException e) {
-            LogManager.getLogger("EVENTBUS").error("Error registering event handler: {} {}", eventType, method, e);
+            LogManager.getLogger("EVENTBUS").error("Error registering event handler: {} {}", subscriber.getEventType(), subscriber.getMethod(), e);
         }
     }
 
     private void addToListeners(final Object target, final Class<?> eventType, final IEventListener listener, final EventPriority priority) {
+        if (shutdown)
+        {
+            throw new IllegalStateException("Can not register " + target + " to a shut down EventBus");
+        }
+        final ListenerList listenerList;
         try {
-            Constructor<?> ctr = eventType.getConstructor();
-            ctr.setAccessible(true);
-            Event event = (Event)ctr.newInstance();
-            event.getListenerList().register(busID, priority, listener);
-
-            ArrayList<IEventListener> others = listeners.computeIfAbsent(target, k -> new ArrayList<>());
-            others.add(listener);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            listenerList = EventListenerHelper.getListenerList(eventType);
+        } catch (IllegalArgumentException e) {
             LogManager.getLogger("EVENTBUS").error("Error registering event handler: {} {}", eventType, target, e);
+            return;
         }
+        listenerList.register(busID, priority, listener);
+
+        // the list of a target is only changed inside compute, so concurrent registrations don't lose records, and
+        // once unregister removed it a registration starts a new one instead of adding to the detached list
+        final Registration registration = new Registration(listenerList, listener);
+        listeners.compute(target, (k, others) -> {
+            if (others == null)
+                others = new ArrayList<>();
+            others.add(registration);
+            return others;
+        });
     }
 
     @Override
     public void unregister(Object object)
     {
-        ArrayList<IEventListener> list = listeners.remove(object);
+        unregisterTarget(object);
+    }
+
+    /**
+     * @return What the object was registered with, null if it wasn't registered
+     */
+    @Nullable
+    final List<Registration> unregisterTarget(Object object)
+    {
+        ArrayList<Registration> list = listeners.remove(object);
         if(list == null)
-            return;
-        for (IEventListener listener : list)
+            return null;
+        for (Registration registration : list)
         {
-            ListenerList.unregisterAll(busID, listener);
+            registration.listenerList.unregister(busID, registration.listener);
         }
+        return list;
     }
 
     @Override
     public boolean post(Event event)
     {
-        IEventListener[] listeners = event.getListenerList().getListeners(busID);
+        return postEvent(event);
+    }
+
+    // post without going through the overridable entry points, which MeteredEventBus counts
+    private boolean postEvent(Event event)
+    {
+        if (shutdown || !event.getListenerList().hasListeners(busID))
+        {
+            return (event.isCancelable() ? event.isCanceled() : false);
+        }
+        if (JfrEvents.isPostRecorded())
+        {
+            return postRecorded(event);
+        }
+        ListenerPlan plan = getPlan(event);
+        if (plan.isParallel(event))
+        {
+            return postParallel(event);
+        }
+        if (blockingDispatch)
+        {
+            return postBlocking(event);
+        }
+        if (compiledDispatch)
+        {
+            return postCompiled(event);
+        }
+
+        dispatch(event, plan);
+        return (event.isCancelable() ? event.isCanceled() : false);
+    }
+
+    /**
+     * Listeners of a generic event are narrowed down to those filtering on its type, see {@link ListenerList#getListeners(int, java.lang.reflect.Type)}.
+     */
+    private IEventListener[] getListeners(Event event)
+    {
+        if (event instanceof IGenericEvent)
+        {
+            return event.getListenerList().getListeners(busID, ((IGenericEvent<?>)event).getGenericType());
+        }
+        return event.getListenerList().getListeners(busID);
+    }
+
+    private ListenerPlan getPlan(Event event)
+    {
+        if (event instanceof IGenericEvent)
+        {
+            return event.getListenerList().getPlan(busID, ((IGenericEvent<?>)event).getGenericType(), event.getClass());
+        }
+        return event.getListenerList().getPlan(busID, event.getClass());
+    }
+
+    private CompiledDispatcher getDispatcher(Event event)
+    {
+        if (event instanceof IGenericEvent)
+        {
+            return event.getListenerList().getDispatcher(busID, ((IGenericEvent<?>)event).getGenericType());
+        }
+        return event.getListenerList().getDispatcher(busID);
+    }
+
+    /**
+     * Post while a flight recording of the bus events runs, see {@link JfrEvents}. Listeners of parallel and blocking posts aren't
+     * recorded one by one, and compiled dispatch is replaced by the recording loop.
+     */
+    private boolean postRecorded(Event event)
+    {
+        Object recorded = JfrEvents.beginPost();
+        ListenerPlan plan = getPlan(event);
+        boolean canceled;
+        if (plan.isParallel(event))
+        {
+            canceled = postParallel(event);
+        }
+        else if (blockingDispatch)
+        {
+            canceled = postBlocking(event);
+        }
+        else
+        {
+            IEventListener[] listeners = plan.listeners;
+            int index = 0;
+            try
+            {
+                // listeners skipped for a canceled event aren't recorded, like they aren't timed by metrics
+                while (index < listeners.length)
+                {
+                    if (event.isCancelable() && event.isCanceled() && (index = plan.skipTo[index]) == listeners.length)
+                    {
+                        break;
+                    }
+                    JfrEvents.invoke(this, busID, listeners[index], event);
+                    index++;
+                }
+            }
+            catch (Throwable throwable)
+            {
+                throw failed(event, listeners, index, throwable);
+            }
+            canceled = event.isCancelable() && event.isCanceled();
+        }
+        JfrEvents.endPost(recorded, busID, event, canceled);
+        return canceled;
+    }
+
+    /**
+     * Calls a single listener for {@link #postRecorded}, see {@link #invoke(IEventListener, IEventListener, Event)}.
+     */
+    final void invoke(IEventListener listener, Event event)
+    {
+        invoke(listener, listener, event);
+    }
+
+    /**
+     * Calls a listener that receives the event for dispatch other than the plain loop, overridden to keep metrics.
+     *
+     * @param handler What to call for the listener, without the checks the dispatch has already made
+     */
+    void invoke(IEventListener listener, IEventListener handler, Event event)
+    {
+        handler.invoke(event);
+    }
+
+    @Override
+    public <T extends Event> boolean post(Class<T> eventType, Supplier<? extends T> factory)
+    {
+        return hasListeners(eventType) && postEvent(factory.get());
+    }
+
+    @Override
+    public boolean hasListeners(Class<? extends Event> eventType)
+    {
+        return !shutdown && EventListenerHelper.getListenerList(eventType).hasListeners(busID);
+    }
+
+    @Override
+    public BitSet postAll(List<? extends Event> events)
+    {
+        boolean[] cancelled = postBatch(events);
+        BitSet ret = new BitSet(cancelled.length);
+        for (int i = 0; i < cancelled.length; i++)
+        {
+            if (cancelled[i])
+            {
+                ret.set(i);
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean[] postAll(Event[] events)
+    {
+        return postBatch(Arrays.asList(events));
+    }
+
+    private boolean[] postBatch(List<? extends Event> events)
+    {
+        boolean[] cancelled = new boolean[events.size()];
+        if (shutdown)
+        {
+            return cancelled;
+        }
+        int start = 0;
+        while (start < cancelled.length)
+        {
+            Class<?> type = events.get(start).getClass();
+            int end = start + 1;
+            while (end < cancelled.length && events.get(end).getClass() == type)
+            {
+                end++;
+            }
+            postRun(events, start, end, cancelled);
+            start = end;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Posts a run of events of the same type, which share a listener snapshot.
+     */
+    private void postRun(List<? extends Event> events, int start, int end, boolean[] cancelled)
+    {
+        Event first = events.get(start);
+        if (blockingDispatch)
+        {
+            postEach(events, start, end, cancelled);
+            return;
+        }
+
+        ListenerList listenerList = first.getListenerList();
+        if (listenerList.hasListeners(busID))
+        {
+            ListenerPlan plan = listenerList.getPlan(busID, first.getClass());
+            if (plan.isParallel(first))
+            {
+                postEach(events, start, end, cancelled);
+                return;
+            }
+            if (compiledDispatch)
+            {
+                CompiledDispatcher dispatcher = listenerList.getDispatcher(busID);
+                for (int i = start; i < end; i++)
+                {
+                    dispatchCompiled(events.get(i), dispatcher);
+                }
+            }
+            else if (batchOrder == BatchOrder.LISTENER_MAJOR)
+            {
+                dispatchListenerMajor(events, start, end, plan);
+            }
+            else
+            {
+                for (int i = start; i < end; i++)
+                {
+                    dispatch(events.get(i), plan);
+                }
+            }
+        }
+        for (int i = start; i < end; i++)
+        {
+            Event event = events.get(i);
+            cancelled[i] = event.isCancelable() && event.isCanceled();
+        }
+    }
+
+    private void postEach(List<? extends Event> events, int start, int end, boolean[] cancelled)
+    {
+        for (int i = start; i < end; i++)
+        {
+            cancelled[i] = postEvent(events.get(i));
+        }
+    }
+
+    /**
+     * Calls the unwrapped listeners of the plan, events that can't be canceled skip every cancellation check and
+     * canceled ones jump straight to the next listener receiving them.
+     */
+    void dispatch(Event event, ListenerPlan plan)
+    {
+        IEventListener[] handlers = plan.handlers;
         int index = 0;
         try
+        {
+            if (!event.isCancelable())
+            {
+                for (; index < handlers.length; index++)
+                {
+                    handlers[index].invoke(event);
+                }
+                return;
+            }
+            int[] skipTo = plan.skipTo;
+            while (index < handlers.length)
+            {
+                if (event.isCanceled() && (index = skipTo[index]) == handlers.length)
+                {
+                    break;
+                }
+                handlers[index].invoke(event);
+                index++;
+            }
+        }
+        catch (Throwable throwable)
+        {
+            throw failed(event, plan.listeners, index, throwable);
+        }
+    }
+
+    /**
+     * Reports a listener failure to the exception handler.
+     *
+     * @return The exception to throw out of the post
+     */
+    final RuntimeException failed(Event event, IEventListener[] listeners, int index, Throwable throwable)
+    {
+        exceptionHandler.handleException(this, event, listeners, index, throwable);
+        return new RuntimeException(throwable);
+    }
+
+    void dispatchListenerMajor(List<? extends Event> events, int start, int end, ListenerPlan plan)
+    {
+        IEventListener[] listeners = plan.listeners;
+        int index = 0;
+        int current = start;
+        try
         {
             for (; index < listeners.length; index++)
             {
-                listeners[index].invoke(event);
+                IEventListener listener = listeners[index];
+                for (current = start; current < end; current++)
+                {
+                    listener.invoke(events.get(current));
+                }
             }
         }
         catch (Throwable throwable)
         {
-            exceptionHandler.handleException(this, event, listeners, index, throwable);
-            throw new RuntimeException(throwable);
+            throw failed(events.get(current), listeners, index, throwable);
+        }
+    }
+
+    @Override
+    public <T extends Event> T acquire(Class<T> type)
+    {
+        return EventPool.acquire(type);
+    }
+
+    @Override
+    public void release(Event event)
+    {
+        EventPool.release(event);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> postAsync(Event event)
+    {
+        return CompletableFuture.supplyAsync(() -> post(event), executor);
+    }
+
+    private boolean postParallel(Event event)
+    {
+        IEventListener[] listeners = getListeners(event);
+        try
+        {
+            ParallelDispatcher.invoke(this, event, listeners, parallelPool);
+        }
+        catch (CompiledDispatcher.ListenerFailure failure)
+        {
+            exceptionHandler.handleException(this, event, listeners, failure.getIndex(), failure.getCause());
+            throw new RuntimeException(failure.getCause());
         }
         return (event.isCancelable() ? event.isCanceled() : false);
     }
 
+    private boolean postBlocking(Event event)
+    {
+        IEventListener[] listeners = getListeners(event);
+        try
+        {
+            BlockingDispatcher.invoke(this, event, listeners);
+        }
+        catch (CompiledDispatcher.ListenerFailure failure)
+        {
+            exceptionHandler.handleException(this, event, listeners, failure.getIndex(), failure.getCause());
+            throw new RuntimeException(failure.getCause());
+        }
+        return (event.isCancelable() ? event.isCanceled() : false);
+    }
+
+    private boolean postCompiled(Event event)
+    {
+        dispatchCompiled(event, getDispatcher(event));
+        return (event.isCancelable() ? event.isCanceled() : false);
+    }
+
+    void dispatchCompiled(Event event, CompiledDispatcher dispatcher)
+    {
+        try
+        {
+            dispatcher.invoke(event);
+        }
+        catch (CompiledDispatcher.ListenerFailure failure)
+        {
+            exceptionHandler.handleException(this, event, dispatcher.getListeners(), failure.getIndex(), failure.getCause());
+            throw new RuntimeException(failure.getCause());
+        }
+    }
+
+    @Override
+    public Optional<IEventMetrics> getMetrics()
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        synchronized (this)
+        {
+            if (shutdown)
+            {
+                return;
+            }
+            shutdown = true;
+        }
+        listeners.clear();
+        ListenerList.releaseBusID(busID);
+    }
+
     @Override
     public void handleException(IEventBus bus, Event event, IEventListener[] listeners, int index, Throwable throwable)
     {
         LOGGER.error(EVENTBUS, ()->new EventBusErrorMessage(event, index, listeners, throwable));
     }
 
+    /**
+     * A listener along with the list it was registered to, so unregistering doesn't have to search every event type.
+     */
+    static final class Registration
+    {
+        private final ListenerList listenerList;
+        final IEventListener listener;
+
+        private Registration(ListenerList listenerList, IEventListener listener)
+        {
+            this.listenerList = listenerList;
+            this.listener = listener;
+        }
+    }
 }
@@ -0,0 +1,158 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Finds the {@link ListenerList} of an event class without creating an instance of it.
+ *
+ * Events get their list from the static {@code LISTENER_LIST} field added by the {@link EventSubscriptionTransformer},
+ * or declared by hand in the same shape. If no instance has filled the field in yet the list is created here, the
+ * same way the generated {@code setup()} would, and stored in the field for it to pick up. Event classes without the
+ * field share their parent's list, like {@link Event#getListenerList()} does for them.
+ */
+public class EventListenerHelper
+{
+    private static final String LISTENER_LIST = "LISTENER_LIST";
+    private static final ClassValue<ListenerList> LISTS = new ClassValue<ListenerList>()
+    {
+        @Override
+        protected ListenerList computeValue(Class<?> type)
+        {
+            if (!Event.class.isAssignableFrom(type))
+            {
+                // the super class walk would run out of classes before finding a list
+                throw new IllegalArgumentException(type.getName() + " is not an Event");
+            }
+            try
+            {
+                return findListenerList(type);
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new IllegalArgumentException("Could not find the listener list of " + type.getName(), e);
+            }
+        }
+    };
+
+    /**
+     * @throws IllegalArgumentException If the type is not an {@link Event} or its list could not be found
+     */
+    public static ListenerList getListenerList(Class<?> eventType)
+    {
+        return LISTS.get(eventType);
+    }
+
+    private static ListenerList findListenerList(Class<?> type) throws ReflectiveOperationException
+    {
+        if (type == Event.class)
+        {
+            Field field = Event.class.getDeclaredField("listeners");
+            field.setAccessible(true);
+            return (ListenerList)field.get(null);
+        }
+
+        Field field = getListenerListField(type);
+        if (field == null)
+        {
+            if (declaresGetListenerList(type))
+            {
+                // Hand-written event storing its list some other way, only an instance can tell
+                Constructor<?> ctr = type.getConstructor();
+                ctr.setAccessible(true);
+                return ((Event)ctr.newInstance()).getListenerList();
+            }
+            return getListenerList(type.getSuperclass());
+        }
+
+        return setupListenerList(type, field, getListenerList(type.getSuperclass()));
+    }
+
+    /**
+     * Called by the generated {@code setup()} while the field is still null, so threads creating the first instances
+     * of an event at the same time all end up with the same list.
+     *
+     * @param parent List of the super class
+     * @return The list stored in the {@code LISTENER_LIST} field of the type
+     * @throws IllegalArgumentException If the type has no such field
+     */
+    public static ListenerList setupListenerList(Class<?> type, ListenerList parent)
+    {
+        Field field = getListenerListField(type);
+        if (field == null)
+        {
+            throw new IllegalArgumentException(type.getName() + " has no static " + LISTENER_LIST + " field");
+        }
+        try
+        {
+            return setupListenerList(type, field, parent);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalArgumentException("Could not set up the listener list of " + type.getName(), e);
+        }
+    }
+
+    private static ListenerList setupListenerList(Class<?> type, Field field, ListenerList parent) throws IllegalAccessException
+    {
+        field.setAccessible(true);
+        synchronized (type)
+        {
+            ListenerList list = (ListenerList)field.get(null);
+            if (list == null)
+            {
+                list = new ListenerList(parent);
+                field.set(null, list);
+            }
+            return list;
+        }
+    }
+
+    private static Field getListenerListField(Class<?> type)
+    {
+        try
+        {
+            Field field = type.getDeclaredField(LISTENER_LIST);
+            return Modifier.isStatic(field.getModifiers()) && field.getType() == ListenerList.class ? field : null;
+        }
+        catch (NoSuchFieldException e)
+        {
+            return null;
+        }
+    }
+
+    private static boolean declaresGetListenerList(Class<?> type)
+    {
+        for (Method method : type.getDeclaredMethods())
+        {
+            if (method.getName().equals("getListenerList") && method.getParameterCount() == 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.eventbus.api.IEventMetrics;
+import net.minecraftforge.eventbus.api.ListenerMetrics;
+import org.apache.logging.log4j.LogManager;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static net.minecraftforge.eventbus.Logging.EVENTBUS;
+
+/**
+ * Counters of a {@link MeteredEventBus}, updated from every posting thread without locking.
+ */
+final class EventMetrics implements IEventMetrics
+{
+    private final ConcurrentHashMap<Class<? extends Event>, LongAdder> posts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<IEventListener, Stats> listeners = new ConcurrentHashMap<>();
+    @Nullable
+    private ObjectName mbean;
+
+    void posted(Class<? extends Event> eventType)
+    {
+        posts.computeIfAbsent(eventType, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Calls the handler of the listener, timing it for the listener unless it is a phase marker.
+     *
+     * @param handler What to call for the listener, the dispatch has already decided that it receives the event
+     */
+    void invoke(IEventListener listener, IEventListener handler, Event event)
+    {
+        if (listener instanceof EventPriority)
+        {
+            handler.invoke(event);
+            return;
+        }
+        Stats stats = listeners.computeIfAbsent(listener, Stats::new);
+        long start = System.nanoTime();
+        try
+        {
+            handler.invoke(event);
+        }
+        catch (Throwable throwable)
+        {
+            stats.exceptions.increment();
+            throw throwable;
+        }
+        finally
+        {
+            stats.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Drops the stats of an unregistered listener, they would keep it and its target reachable otherwise.
+     */
+    void remove(IEventListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    void clearListeners()
+    {
+        listeners.clear();
+    }
+
+    @Override
+    public long getPostCount(Class<? extends Event> eventType)
+    {
+        LongAdder count = posts.get(eventType);
+        return count == null ? 0 : count.sum();
+    }
+
+    @Override
+    public Map<Class<? extends Event>, Long> getPostCounts()
+    {
+        Map<Class<? extends Event>, Long> ret = new HashMap<>();
+        posts.forEach((type, count) -> ret.put(type, count.sum()));
+        return ret;
+    }
+
+    @Override
+    public List<ListenerMetrics> getListenerMetrics()
+    {
+        List<ListenerMetrics> ret = new ArrayList<>();
+        for (Stats stats : listeners.values())
+        {
+            ret.add(stats.snapshot());
+        }
+        ret.sort(Comparator.comparingLong(ListenerMetrics::getTotalNanos).reversed());
+        return ret;
+    }
+
+    @Override
+    public void reset()
+    {
+        posts.clear();
+        listeners.clear();
+    }
+
+    void registerMBean(String name)
+    {
+        try
+        {
+            ObjectName objectName = new ObjectName("net.minecraftforge.eventbus:type=EventBus,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(new MBean(), EventMetricsMXBean.class, true), objectName);
+            mbean = objectName;
+        }
+        catch (JMException e)
+        {
+            LogManager.getLogger("EVENTBUS").error(EVENTBUS, "Failed to register the metrics MBean of EventBus {}", name, e);
+        }
+    }
+
+    void unregisterMBean()
+    {
+        if (mbean == null)
+        {
+            return;
+        }
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(mbean))
+            {
+                server.unregisterMBean(mbean);
+            }
+        }
+        catch (JMException e)
+        {
+            LogManager.getLogger("EVENTBUS").error(EVENTBUS, "Failed to unregister the metrics MBean {}", mbean, e);
+        }
+        mbean = null;
+    }
+
+    private static final class Stats
+    {
+        private final String listener;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder exceptions = new LongAdder();
+
+        private Stats(IEventListener listener)
+        {
+            this.listener = listener.toString();
+        }
+
+        private void record(long nanos)
+        {
+            invocations.increment();
+            totalNanos.add(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+            {
+                max = maxNanos.get();
+            }
+        }
+
+        private ListenerMetrics snapshot()
+        {
+            return new ListenerMetrics(listener, invocations.sum(), totalNanos.sum(), maxNanos.get(), exceptions.sum());
+        }
+    }
+
+    private final class MBean implements EventMetricsMXBean
+    {
+        @Override
+        public Map<String, Long> getPostCounts()
+        {
+            Map<String, Long> ret = new TreeMap<>();
+            posts.forEach((type, count) -> ret.put(type.getName(), count.sum()));
+            return ret;
+        }
+
+        @Override
+        public List<ListenerMetrics> getListenerMetrics()
+        {
+            return EventMetrics.this.getListenerMetrics();
+        }
+
+        @Override
+        public void reset()
+        {
+            EventMetrics.this.reset();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.ListenerMetrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of a bus, registered when it is built with {@link net.minecraftforge.eventbus.api.BusBuilder#setMetricsMBean}.
+ */
+public interface EventMetricsMXBean
+{
+    /**
+     * @return Posts by event class name
+     */
+    Map<String, Long> getPostCounts();
+
+    List<ListenerMetrics> getListenerMetrics();
+
+    void reset();
+}
@@ -0,0 +1,126 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Pools of reusable events, one per event type. Each pool is a small stack held by the event class itself, so
+ * pooled events never keep their class, or its loader, reachable past its own lifetime the way per thread pools
+ * on long lived threads would. Events past {@link #MAX_POOLED} are left to the GC.
+ */
+final class EventPool
+{
+    private static final int MAX_POOLED = 16;
+    private static final ClassValue<Pool> POOLS = new ClassValue<Pool>()
+    {
+        @Override
+        protected Pool computeValue(Class<?> type)
+        {
+            return new Pool(type);
+        }
+    };
+
+    private EventPool()
+    {
+    }
+
+    static <T extends Event> T acquire(Class<T> type)
+    {
+        return type.cast(POOLS.get(type).acquire());
+    }
+
+    static void release(Event event)
+    {
+        event.reset();
+        POOLS.get(event.getClass()).release(event);
+    }
+
+    private static final class Pool
+    {
+        private final Class<?> type;
+        // guarded by this, acquiring and releasing are short enough that contention is rare
+        private final Event[] events = new Event[MAX_POOLED];
+        private int size;
+        private volatile Constructor<?> constructor;
+
+        Pool(Class<?> type)
+        {
+            this.type = type;
+        }
+
+        Event acquire()
+        {
+            synchronized (this)
+            {
+                if (size > 0)
+                {
+                    Event event = events[--size];
+                    events[size] = null;
+                    return event;
+                }
+            }
+            try
+            {
+                Constructor<?> ctor = constructor;
+                if (ctor == null)
+                {
+                    ctor = type.getDeclaredConstructor();
+                    ctor.setAccessible(true);
+                    constructor = ctor;
+                }
+                return (Event)ctor.newInstance();
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new IllegalArgumentException("Can not create pooled event " + type.getName() + ", it needs a no-arg constructor", e);
+            }
+        }
+
+        private boolean contains(Event event)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (events[i] == event)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @throws IllegalStateException If the event is in the pool already, handing it out twice would share it
+         */
+        synchronized void release(Event event)
+        {
+            if (contains(event))
+            {
+                throw new IllegalStateException("Event " + event + " was already released");
+            }
+            if (size < MAX_POOLED)
+            {
+                events[size++] = event;
+            }
+        }
+    }
+}
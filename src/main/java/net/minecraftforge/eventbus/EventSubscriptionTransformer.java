@@ -166,7 +166,7 @@ public class EventSubscriptionTransformer
          *              {
          *                      return;
          *              }
-         *              LISTENER_LIST = new ListenerList(super.getListenerList());
+         *              LISTENER_LIST = EventListenerHelper.setupListenerList(ThisEvent.class, super.getListenerList());
          *      }
          */
         MethodNode method = new MethodNode(ACC_PROTECTED, "setup", voidDesc, null, null);
@@ -178,11 +178,10 @@ public class EventSubscriptionTransformer
         method.instructions.add(new InsnNode(RETURN));
         method.instructions.add(initListener);
         method.instructions.add(new FrameNode(F_SAME, 0, null, 0, null));
-        method.instructions.add(new TypeInsnNode(NEW, tList.getInternalName()));
-        method.instructions.add(new InsnNode(DUP));
+        method.instructions.add(new LdcInsnNode(Type.getObjectType(classNode.name)));
         method.instructions.add(new VarInsnNode(ALOAD, 0));
         method.instructions.add(new MethodInsnNode(INVOKESPECIAL, tSuper.getInternalName(), "getListenerList", listDescM, false));
-        method.instructions.add(new MethodInsnNode(INVOKESPECIAL, tList.getInternalName(), "<init>", getMethodDescriptor(VOID_TYPE, tList), false));
+        method.instructions.add(new MethodInsnNode(INVOKESTATIC, Type.getInternalName(EventListenerHelper.class), "setupListenerList", getMethodDescriptor(tList, Type.getType(Class.class), tList), false));
         method.instructions.add(new FieldInsnNode(PUTSTATIC, classNode.name, "LISTENER_LIST", listDesc));
         method.instructions.add(new InsnNode(RETURN));
         classNode.methods.add(method);
@@ -0,0 +1,90 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.eventbus.api.IGenericEvent;
+import net.minecraftforge.eventbus.api.IndexedSubscriber;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+
+/**
+ * Listener for a subscriber found in a generated {@link net.minecraftforge.eventbus.api.ISubscriberIndex}.
+ * The invoker comes straight from the index, so nothing is reflected on or generated at registration.
+ */
+public class IndexedEventHandler implements IEventListener
+{
+    private final IEventListener handler;
+    private final boolean receiveCancelled;
+    private final boolean blocking;
+    @Nullable
+    private final Type filter;
+    private final String readable;
+
+    IndexedEventHandler(IEventListener handler, Object target, IndexedSubscriber subscriber)
+    {
+        this.handler = handler;
+        this.receiveCancelled = subscriber.receiveCanceled();
+        this.blocking = subscriber.isBlocking();
+        this.filter = subscriber.getFilter();
+        this.readable = "Indexed: " + target + " " + subscriber.getName() + "(" + subscriber.getEventType().getName() + ")";
+    }
+
+    @Override
+    public void invoke(Event event)
+    {
+        if (!receiveCancelled && event.isCancelable() && event.isCanceled())
+        {
+            return;
+        }
+        if (filter != null && filter != ((IGenericEvent<?>)event).getGenericType())
+        {
+            return;
+        }
+        handler.invoke(event);
+    }
+
+    boolean receiveCanceled()
+    {
+        return receiveCancelled;
+    }
+
+    boolean isBlocking()
+    {
+        return blocking;
+    }
+
+    @Nullable
+    Type getFilter()
+    {
+        return filter;
+    }
+
+    IEventListener getHandler()
+    {
+        return handler;
+    }
+
+    public String toString()
+    {
+        return readable;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+
+/**
+ * Flight Recorder events for posts, listener calls and listener list rebuilds.
+ *
+ * Buses only take the recording code paths while a recording runs and has these events enabled. Whether anything
+ * runs at all is tracked through a {@link FlightRecorderListener}, so without a recording a post checks a single flag,
+ * and as the events are disabled unless a recording's settings enable them, a continuous recording with the default
+ * settings keeps the fast paths too. The thresholds keep fast posts out of recordings that enable them and can be
+ * changed in the recording settings like those of any JDK event.
+ *
+ * Every use of the jdk.jfr API is kept in the nested classes, this class loads fine on runtimes without it and then
+ * never reports a recording. Compiling it needs a JDK shipping jdk.jfr, which build.gradle checks for.
+ */
+final class JfrEvents
+{
+    private static final boolean AVAILABLE = isAvailable();
+    private static volatile boolean recording;
+
+    static
+    {
+        if (AVAILABLE)
+        {
+            State.listen();
+        }
+    }
+
+    private static boolean isAvailable()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.FlightRecorder");
+            return State.isAvailable();
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return Whether posts should go through the recording path, so a running recording enables posts or listener calls
+     */
+    static boolean isPostRecorded()
+    {
+        return AVAILABLE && recording && Types.isPostEnabled();
+    }
+
+    static boolean isRebuildRecorded()
+    {
+        return AVAILABLE && recording && Types.REBUILT.isEnabled();
+    }
+
+    /**
+     * @return Handle to pass to {@link #endPost}, null while the post event itself is disabled
+     */
+    static Object beginPost()
+    {
+        return Types.POSTED.isEnabled() ? Posted.start() : null;
+    }
+
+    static void endPost(Object handle, int busID, Event event, boolean canceled)
+    {
+        if (handle != null)
+        {
+            Posted.finish(handle, busID, event, canceled);
+        }
+    }
+
+    /**
+     * Calls the listener through the bus, recording how long it took unless it is a phase marker.
+     */
+    static void invoke(EventBus bus, int busID, IEventListener listener, Event event)
+    {
+        if (listener instanceof EventPriority || !Types.INVOKED.isEnabled())
+        {
+            bus.invoke(listener, event);
+            return;
+        }
+        ListenerInvoked.invoke(bus, busID, listener, event);
+    }
+
+    static Object beginRebuild()
+    {
+        return ListenerListRebuilt.start();
+    }
+
+    static void endRebuild(Object handle, int busID, int listeners)
+    {
+        ListenerListRebuilt.finish(handle, busID, listeners);
+    }
+
+    /**
+     * Only loaded once a recording runs, which means Flight Recorder is available to register the events with.
+     */
+    private static final class Types
+    {
+        private static final EventType POSTED = EventType.getEventType(Posted.class);
+        private static final EventType INVOKED = EventType.getEventType(ListenerInvoked.class);
+        private static final EventType REBUILT = EventType.getEventType(ListenerListRebuilt.class);
+
+        private static boolean isPostEnabled()
+        {
+            return POSTED.isEnabled() || INVOKED.isEnabled();
+        }
+    }
+
+    private static final class State
+    {
+        private static boolean isAvailable()
+        {
+            return FlightRecorder.isAvailable();
+        }
+
+        private static void listen()
+        {
+            FlightRecorder.addListener(new FlightRecorderListener()
+            {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder)
+                {
+                    update(recorder);
+                }
+
+                @Override
+                public void recordingStateChanged(Recording changed)
+                {
+                    update(FlightRecorder.getFlightRecorder());
+                }
+            });
+        }
+
+        private static void update(FlightRecorder recorder)
+        {
+            boolean running = false;
+            for (Recording r : recorder.getRecordings())
+            {
+                running |= r.getState() == RecordingState.RUNNING;
+            }
+            recording = running;
+        }
+    }
+
+    @Name("net.minecraftforge.eventbus.EventPosted")
+    @Label("Event Posted")
+    @Category({"Minecraft Forge", "EventBus"})
+    @Enabled(false)
+    @Description("Post of an event to a bus, from the first listener called to the last one returning")
+    @Threshold("5 ms")
+    @StackTrace(false)
+    static final class Posted extends jdk.jfr.Event
+    {
+        @Label("Event Type")
+        Class<?> eventType;
+        @Label("Bus ID")
+        int busID;
+        @Label("Canceled")
+        boolean canceled;
+
+        private static Object start()
+        {
+            Posted posted = new Posted();
+            posted.begin();
+            return posted;
+        }
+
+        private static void finish(Object handle, int busID, Event event, boolean canceled)
+        {
+            Posted posted = (Posted)handle;
+            posted.end();
+            if (posted.shouldCommit())
+            {
+                posted.eventType = event.getClass();
+                posted.busID = busID;
+                posted.canceled = canceled;
+                posted.commit();
+            }
+        }
+    }
+
+    @Name("net.minecraftforge.eventbus.ListenerInvoked")
+    @Label("Listener Invoked")
+    @Category({"Minecraft Forge", "EventBus"})
+    @Enabled(false)
+    @Description("Call of a single listener during a post")
+    @Threshold("1 ms")
+    static final class ListenerInvoked extends jdk.jfr.Event
+    {
+        @Label("Event Type")
+        Class<?> eventType;
+        @Label("Bus ID")
+        int busID;
+        @Label("Listener")
+        String listener;
+        @Label("Canceled")
+        @Description("Whether the event was canceled once the listener returned")
+        boolean canceled;
+
+        private static void invoke(EventBus bus, int busID, IEventListener listener, Event event)
+        {
+            ListenerInvoked invoked = new ListenerInvoked();
+            invoked.begin();
+            try
+            {
+                bus.invoke(listener, event);
+            }
+            finally
+            {
+                invoked.end();
+                if (invoked.shouldCommit())
+                {
+                    invoked.eventType = event.getClass();
+                    invoked.busID = busID;
+                    invoked.listener = listener.toString();
+                    invoked.canceled = event.isCancelable() && event.isCanceled();
+                    invoked.commit();
+                }
+            }
+        }
+    }
+
+    @Name("net.minecraftforge.eventbus.ListenerListRebuilt")
+    @Label("Listener List Rebuilt")
+    @Category({"Minecraft Forge", "EventBus"})
+    @Enabled(false)
+    @Description("Rebuild of the listeners of an event type after a registration changed them")
+    @Threshold("0 ms")
+    static final class ListenerListRebuilt extends jdk.jfr.Event
+    {
+        @Label("Bus ID")
+        int busID;
+        @Label("Listeners")
+        @Description("Number of entries in the rebuilt list, priority phase markers included")
+        int listeners;
+
+        private static Object start()
+        {
+            ListenerListRebuilt rebuilt = new ListenerListRebuilt();
+            rebuilt.begin();
+            return rebuilt;
+        }
+
+        private static void finish(Object handle, int busID, int listeners)
+        {
+            ListenerListRebuilt rebuilt = (ListenerListRebuilt)handle;
+            rebuilt.end();
+            if (rebuilt.shouldCommit())
+            {
+                rebuilt.busID = busID;
+                rebuilt.listeners = listeners;
+                rebuilt.commit();
+            }
+        }
+    }
+}
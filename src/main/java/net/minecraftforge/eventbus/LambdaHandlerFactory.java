@@ -0,0 +1,163 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.IEventListener;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates listeners for {@link net.minecraftforge.eventbus.api.SubscribeEvent} methods through {@link LambdaMetafactory}.
+ *
+ * The metafactory defines its classes against the subscriber's class, as hidden classes from Java 15 on and
+ * as VM anonymous classes before that, so the listeners can be unloaded along with the subscriber's class loader.
+ * It needs a lookup with full access to that class, subscribers whose class can't be reached like that, such as
+ * those in another module from Java 14 on, get ASM listeners instead, see {@link #canCreate}.
+ * The listener constructor for each method is cached on the declaring class and goes away with it.
+ */
+class LambdaHandlerFactory
+{
+    private static final MethodType LISTENER_TYPE = MethodType.methodType(void.class, Event.class);
+    private static final ClassValue<ConcurrentHashMap<Method, MethodHandle>> FACTORIES = new ClassValue<ConcurrentHashMap<Method, MethodHandle>>()
+    {
+        @Override
+        protected ConcurrentHashMap<Method, MethodHandle> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final ClassValue<Optional<MethodHandles.Lookup>> LOOKUPS = new ClassValue<Optional<MethodHandles.Lookup>>()
+    {
+        @Override
+        protected Optional<MethodHandles.Lookup> computeValue(Class<?> type)
+        {
+            return privateLookup(type);
+        }
+    };
+
+    /**
+     * @return Whether listeners for methods of the class can be created here
+     */
+    static boolean canCreate(Class<?> owner)
+    {
+        return LOOKUPS.get(owner).isPresent();
+    }
+
+    static IEventListener create(Object target, Method callback) throws IllegalAccessException, InstantiationException, InvocationTargetException
+    {
+        MethodHandle factory = FACTORIES.get(callback.getDeclaringClass()).get(callback);
+        if (factory == null)
+        {
+            factory = createFactory(callback);
+            FACTORIES.get(callback.getDeclaringClass()).putIfAbsent(callback, factory);
+        }
+        try
+        {
+            if (Modifier.isStatic(callback.getModifiers()))
+                return (IEventListener)factory.invoke();
+            else
+                return (IEventListener)factory.invoke(target);
+        }
+        catch (Throwable t)
+        {
+            throw new InvocationTargetException(t, "Failed to create listener for " + callback);
+        }
+    }
+
+    private static MethodHandle createFactory(Method callback) throws IllegalAccessException, InstantiationException
+    {
+        Class<?> owner = callback.getDeclaringClass();
+        MethodHandles.Lookup lookup = LOOKUPS.get(owner).orElseThrow(() -> new IllegalAccessException("Unable to get a private lookup for " + owner));
+        MethodHandle impl = lookup.unreflect(callback);
+        MethodType factoryType = Modifier.isStatic(callback.getModifiers()) ?
+                MethodType.methodType(IEventListener.class) :
+                MethodType.methodType(IEventListener.class, owner);
+        try
+        {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", factoryType, LISTENER_TYPE, impl,
+                    MethodType.methodType(void.class, callback.getParameterTypes()[0]));
+            return site.getTarget();
+        }
+        catch (LambdaConversionException e)
+        {
+            InstantiationException ex = new InstantiationException("Failed to create listener factory for " + callback);
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+
+    /**
+     * The metafactory needs a lookup with full access to the class it defines the listener against.
+     * Java 9 has API for a private lookup, on Java 8 the only way is the private Lookup constructor.
+     * From Java 14 a private lookup into another module is no longer enough, and nothing is returned for those.
+     */
+    private static Optional<MethodHandles.Lookup> privateLookup(Class<?> owner)
+    {
+        Method privateLookupIn;
+        try
+        {
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        }
+        catch (NoSuchMethodException e)
+        {
+            try
+            {
+                Constructor<MethodHandles.Lookup> ctr = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+                ctr.setAccessible(true);
+                return Optional.of(ctr.newInstance(owner));
+            }
+            catch (ReflectiveOperationException | RuntimeException ex)
+            {
+                return Optional.empty();
+            }
+        }
+
+        try
+        {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup)privateLookupIn.invoke(null, owner, MethodHandles.lookup());
+            return hasFullPrivilegeAccess(lookup) ? Optional.of(lookup) : Optional.empty();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            // privateLookupIn refuses packages not opened to the bus
+            return Optional.empty();
+        }
+    }
+
+    private static boolean hasFullPrivilegeAccess(MethodHandles.Lookup lookup) throws ReflectiveOperationException
+    {
+        try
+        {
+            return (Boolean)MethodHandles.Lookup.class.getMethod("hasFullPrivilegeAccess").invoke(lookup);
+        }
+        catch (NoSuchMethodException e)
+        {
+            // Before Java 14 private access is all the metafactory asks for
+            return true;
+        }
+    }
+}
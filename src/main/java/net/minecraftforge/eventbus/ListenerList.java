@@ -23,19 +23,46 @@ import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.IEventListener;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class ListenerList
 {
-    private static List<ListenerList> allLists = new ArrayList<>();
-    private static int maxSize = 0;
-
+    // Added to by every thread loading event classes. Lists added during an iteration have no bus slots to visit yet
+    private static final Queue<ListenerList> allLists = new ConcurrentLinkedQueue<>();
+    /**
+     * Guards the bus IDs and the lists held for each of them. The listeners of a single list are guarded by
+     * the list itself, so rebuilding the listeners of one event type doesn't hold up the others.
+     */
+    private static final Object LOCK = new Object();
+    private static final ThreadLocal<Batch> BATCH = new ThreadLocal<>();
+    /**
+     * The low bits of a bus ID pick its slot in the lists, the high ones count how often the slot has been handed
+     * out. A list only answers for the exact ID it was created for, so posts and registrations racing with the
+     * shutdown of a bus can't reach the listeners of a newer bus given the same slot, short of the slot being
+     * handed out another 32768 times in between.
+     */
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7FFF;
+    // slots of the buses alive, guarded by LOCK
+    private static final BitSet busIDs = new BitSet();
+    // generation of the bus in each slot, guarded by LOCK
+    private static int[] generations = new int[0];
+
+    // final so a list published through an unsynchronized LISTENER_LIST field is seen fully built
     @Nullable
-    private ListenerList parent;
-    private ListenerListInst[] lists = new ListenerListInst[0];
+    private final ListenerList parent;
+    /**
+     * Indexed by bus slot, a slot is only filled once the bus touches this list and the array never grows past the
+     * highest slot alive. Replaced rather than written to, while holding {@link #LOCK}, so reads need no locking.
+     */
+    private volatile ListenerListInst[] lists = new ListenerListInst[0];
 
     public ListenerList()
     {
@@ -44,85 +71,335 @@ public class ListenerList
 
     public ListenerList(@Nullable ListenerList parent)
     {
-        // parent needs to be set before resize !
         this.parent = parent;
-        extendMasterList(this);
-        resizeLists(maxSize);
+        allLists.add(this);
     }
 
-    private synchronized static void extendMasterList(ListenerList inst)
+    /**
+     * Lists grow with the buses using them, there is nothing to size up front.
+     *
+     * @deprecated Does nothing, kept for callers from before bus IDs were recycled
+     */
+    @Deprecated
+    public static void resize(int max)
     {
-        allLists.add(inst);
     }
 
-    public static void resize(int max)
+    /**
+     * @deprecated Does nothing, see {@link #resize}
+     */
+    @Deprecated
+    public void resizeLists(int max)
+    {
+    }
+
+    /**
+     * Hands out the lowest slot not used by a live bus, so the lists only grow with the number of buses alive at once.
+     */
+    static int acquireBusID()
     {
-        if (max <= maxSize)
+        synchronized (LOCK)
         {
-            return;
+            int slot = busIDs.nextClearBit(0);
+            if (slot > SLOT_MASK)
+            {
+                throw new IllegalStateException("Too many event buses alive, shut down the ones no longer used");
+            }
+            busIDs.set(slot);
+            if (slot >= generations.length)
+            {
+                generations = Arrays.copyOf(generations, Math.max(slot + 1, generations.length * 2));
+            }
+            return generations[slot] << SLOT_BITS | slot;
         }
-        allLists.forEach(list -> list.resizeLists(max));
-        maxSize = max;
     }
 
-    public void resizeLists(int max)
+    /**
+     * Drops every listener of the bus and frees its slot for the next bus, shrinking the lists if it was the highest.
+     */
+    static void releaseBusID(int id)
     {
-        if (parent != null)
+        synchronized (LOCK)
         {
-            parent.resizeLists(max);
+            int slot = id & SLOT_MASK;
+            if (!isAlive(id))
+            {
+                return;
+            }
+            busIDs.clear(slot);
+            generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+            int length = busIDs.length();
+            for (ListenerList list : allLists)
+            {
+                list.release(id, length);
+            }
         }
+    }
 
-        if (lists.length >= max)
+    /**
+     * Must be called while holding {@link #LOCK}.
+     */
+    private static boolean isAlive(int id)
+    {
+        int slot = id & SLOT_MASK;
+        return busIDs.get(slot) && generations[slot] == id >>> SLOT_BITS;
+    }
+
+    /**
+     * Must be called while holding {@link #LOCK}.
+     *
+     * @param length Highest slot still alive plus one
+     */
+    private void release(int id, int length)
+    {
+        ListenerListInst inst = peekInstance(id);
+        if (inst != null)
+        {
+            inst.release();
+        }
+        ListenerListInst[] lists = this.lists;
+        int slot = id & SLOT_MASK;
+        if (slot >= lists.length)
         {
             return;
         }
+        ListenerListInst[] copy = Arrays.copyOf(lists, Math.min(lists.length, length));
+        if (slot < copy.length)
+        {
+            copy[slot] = null;
+        }
+        this.lists = copy;
+    }
 
-        ListenerListInst[] newList = new ListenerListInst[max];
-        int x = 0;
-        for (; x < lists.length; x++)
+    public static void clearBusID(int id)
+    {
+        synchronized (LOCK)
         {
-            newList[x] = lists[x];
+            for (ListenerList list : allLists)
+            {
+                ListenerListInst inst = list.peekInstance(id);
+                if (inst != null)
+                {
+                    inst.dispose();
+                }
+            }
         }
-        for(; x < max; x++)
+    }
+
+    @Nullable
+    private ListenerListInst peekInstance(int id)
+    {
+        ListenerListInst[] lists = this.lists;
+        int slot = id & SLOT_MASK;
+        ListenerListInst inst = slot < lists.length ? lists[slot] : null;
+        return inst != null && inst.busID == id ? inst : null;
+    }
+
+    protected ListenerListInst getInstance(int id)
+    {
+        ListenerListInst inst = peekInstance(id);
+        return inst != null ? inst : createInstance(id);
+    }
+
+    private ListenerListInst createInstance(int id)
+    {
+        synchronized (LOCK)
         {
-            if (parent != null)
+            ListenerListInst inst = peekInstance(id);
+            if (inst != null)
             {
-                newList[x] = new ListenerListInst(parent.getInstance(x));
+                return inst;
             }
-            else
+            if (!isAlive(id))
             {
-                newList[x] = new ListenerListInst();
+                // the bus was shut down, answer with an empty list that isn't kept and rejects registrations
+                inst = new ListenerListInst(id);
+                inst.release();
+                return inst;
             }
+            inst = parent != null ? new ListenerListInst(id, parent.getInstance(id)) : new ListenerListInst(id);
+            int slot = id & SLOT_MASK;
+            ListenerListInst[] copy = Arrays.copyOf(lists, Math.max(lists.length, slot + 1));
+            copy[slot] = inst;
+            lists = copy;
+            return inst;
         }
-        lists = newList;
     }
 
-    public static void clearBusID(int id)
+    public IEventListener[] getListeners(int id)
     {
-        for (ListenerList list : allLists)
+        return getInstance(id).getListeners();
+    }
+
+    /**
+     * Doesn't create the listeners of this list for the bus, the closest parent the bus has touched answers instead.
+     *
+     * @return Whether the bus has any listener for this event or one of its parents
+     */
+    public boolean hasListeners(int id)
+    {
+        for (ListenerList list = this; list != null; list = list.parent)
         {
-            list.lists[id].dispose();
+            ListenerListInst inst = list.peekInstance(id);
+            if (inst != null)
+            {
+                return inst.hasListeners();
+            }
         }
+        return false;
     }
 
-    protected ListenerListInst getInstance(int id)
+    CompiledDispatcher getDispatcher(int id)
     {
-        return lists[id];
+        return getInstance(id).getDispatcher();
     }
 
-    public IEventListener[] getListeners(int id)
+    /**
+     * Listeners for a generic event of the given type, leaving out those filtering on any other type.
+     * Priority order and phase markers are kept, phases left without listeners are dropped.
+     */
+    public IEventListener[] getListeners(int id, Type genericType)
+    {
+        return getInstance(id).getGenericIndex().get(genericType).listeners;
+    }
+
+    CompiledDispatcher getDispatcher(int id, Type genericType)
+    {
+        return getInstance(id).getGenericIndex().get(genericType).getDispatcher();
+    }
+
+    /**
+     * @param eventType Class of the event to post, see {@link ListenerPlan#isParallel}
+     */
+    ListenerPlan getPlan(int id, Class<?> eventType)
     {
-        return lists[id].getListeners();
+        return getInstance(id).getPlan(eventType);
+    }
+
+    ListenerPlan getPlan(int id, Type genericType, Class<?> eventType)
+    {
+        return getInstance(id).getGenericIndex().get(genericType).getPlan(eventType);
+    }
+
+    @Nullable
+    private static Type getFilter(IEventListener listener)
+    {
+        if (listener instanceof ASMEventHandler)
+            return ((ASMEventHandler)listener).getFilter();
+        if (listener instanceof IndexedEventHandler)
+            return ((IndexedEventHandler)listener).getFilter();
+        if (listener instanceof ConsumerEventHandler)
+            return ((ConsumerEventHandler<?>)listener).getFilter();
+        return null;
+    }
+
+    /**
+     * Listener snapshot split by generic filter, so posting a generic event skips the listeners of other types
+     * instead of calling each one to compare. Built lazily for a single snapshot and replaced along with it.
+     */
+    private static final class GenericIndex
+    {
+        private final IEventListener[] source;
+        private final Filtered all;
+        private final boolean filtered;
+        // only classes are looked up, filters are compared by identity and other types don't promise equals does the same
+        private final ConcurrentHashMap<Class<?>, Filtered> byType = new ConcurrentHashMap<>();
+
+        private GenericIndex(IEventListener[] source)
+        {
+            this.source = source;
+            this.all = new Filtered(source, null);
+            this.filtered = Arrays.stream(source).anyMatch(listener -> getFilter(listener) != null);
+        }
+
+        private Filtered get(@Nullable Type type)
+        {
+            if (!filtered || !(type instanceof Class))
+            {
+                return all;
+            }
+            return byType.computeIfAbsent((Class<?>)type, this::filter);
+        }
+
+        private Filtered filter(Class<?> type)
+        {
+            List<IEventListener> ret = new ArrayList<>();
+            EventPriority phase = null;
+            for (IEventListener listener : source)
+            {
+                if (listener instanceof EventPriority)
+                {
+                    phase = (EventPriority)listener;
+                    continue;
+                }
+                Type filter = getFilter(listener);
+                if (filter != null && filter != type)
+                {
+                    continue;
+                }
+                if (phase != null)
+                {
+                    ret.add(phase);
+                    phase = null;
+                }
+                ret.add(listener);
+            }
+            return new Filtered(ret.toArray(new IEventListener[0]), type);
+        }
+    }
+
+    private static final class Filtered
+    {
+        private final IEventListener[] listeners;
+        // generic type the listeners were filtered on
+        @Nullable
+        private final Class<?> type;
+        // compiled on first use like the dispatcher of a whole list, a stale read only costs a recompile
+        private CompiledDispatcher dispatcher;
+        // same
+        private ListenerPlan plan;
+
+        private Filtered(IEventListener[] listeners, @Nullable Class<?> type)
+        {
+            this.listeners = listeners;
+            this.type = type;
+        }
+
+        private ListenerPlan getPlan(Class<?> eventType)
+        {
+            ListenerPlan ret = plan;
+            if (ret == null)
+            {
+                ret = new ListenerPlan(listeners, type, eventType);
+                plan = ret;
+            }
+            return ret;
+        }
+
+        private CompiledDispatcher getDispatcher()
+        {
+            CompiledDispatcher ret = dispatcher;
+            if (ret == null)
+            {
+                ret = CompiledDispatcher.compile(listeners);
+                dispatcher = ret;
+            }
+            return ret;
+        }
     }
 
     public void register(int id, EventPriority priority, IEventListener listener)
     {
-        lists[id].register(priority, listener);
+        getInstance(id).register(priority, listener);
     }
 
     public void unregister(int id, IEventListener listener)
     {
-        lists[id].unregister(listener);
+        ListenerListInst inst = peekInstance(id);
+        if (inst != null)
+        {
+            inst.unregister(listener);
+        }
     }
 
     public static void unregisterAll(int id, IEventListener listener)
@@ -133,60 +410,119 @@ public class ListenerList
         }
     }
 
-    private class ListenerListInst
+    /**
+     * Runs the action with invalidation of listener caches deferred until it returns, so registering many listeners
+     * invalidates, and later rebuilds, each affected list once rather than once per listener.
+     * Posts keep seeing the previous listeners of an affected list until the batch completes, on the batching
+     * thread as well as on others.
+     * Nested batches join the outermost one.
+     *
+     * @param action Action doing the registrations
+     */
+    static void batch(Runnable action)
     {
-        private boolean rebuild = true;
-        private IEventListener[] listeners;
-        private ArrayList<ArrayList<IEventListener>> priorities;
-        private ListenerListInst parent;
-        private List<ListenerListInst> children;
+        if (BATCH.get() != null)
+        {
+            action.run();
+            return;
+        }
+        Batch batch = new Batch();
+        BATCH.set(batch);
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            BATCH.remove();
+            batch.commit();
+        }
+    }
 
+    /**
+     * Lists changed by the running batch on this thread.
+     */
+    private static class Batch
+    {
+        private final Set<ListenerListInst> pending = Collections.newSetFromMap(new IdentityHashMap<>());
 
-        private ListenerListInst()
+        private void commit()
         {
+            Set<ListenerListInst> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (ListenerListInst inst : pending)
+            {
+                inst.forceRebuild(visited);
+            }
+        }
+    }
+
+    /**
+     * Listeners registered for a single bus.
+     *
+     * The flattened listener array is an immutable snapshot published through a volatile field, so posting
+     * is a single volatile read unless the snapshot has been invalidated. The per priority lists are only
+     * touched while holding the list itself. A rebuild holds its own list and then each parent in turn,
+     * always child before parent, while a registration on a parent invalidates the snapshots of all its
+     * children without locking them, so one event type being rebuilt never waits on another one being posted.
+     */
+    private class ListenerListInst
+    {
+        // null when the snapshot needs to be rebuilt
+        private volatile IEventListener[] listeners;
+        // not volatile, a stale read only costs a recompile as the dispatcher is checked against the snapshot
+        private CompiledDispatcher dispatcher;
+        // same, checked against the snapshot it was built from
+        private GenericIndex generic;
+        private ListenerPlan plan;
+        // bumped by every invalidation, so a rebuild racing with one doesn't keep a snapshot missing registrations
+        private final AtomicInteger version = new AtomicInteger();
+        // listeners registered to this list itself, only written while holding this list
+        private volatile int count;
+        private final ArrayList<LinkedHashSet<IEventListener>> priorities;
+        private volatile ListenerListInst parent;
+        // walked by invalidations of this list, which don't hold the children
+        private final List<ListenerListInst> children = new CopyOnWriteArrayList<>();
+        private final int busID;
+        // set once the bus is shut down, only touched while holding this list
+        private boolean released;
+
+
+        private ListenerListInst(int busID)
+        {
+            this.busID = busID;
             int count = EventPriority.values().length;
             priorities = new ArrayList<>(count);
 
             for (int x = 0; x < count; x++)
             {
-                priorities.add(new ArrayList<>());
+                priorities.add(new LinkedHashSet<>());
             }
         }
 
-        public void dispose()
+        public synchronized void dispose()
         {
-            priorities.forEach(ArrayList::clear);
-            priorities.clear();
+            priorities.forEach(LinkedHashSet::clear);
+            count = 0;
             parent = null;
-            listeners = null;
-            if (children != null)
-                children.clear();
+            listeners = new IEventListener[0];
+            dispatcher = null;
+            children.clear();
         }
 
-        private ListenerListInst(ListenerListInst parent)
+        /**
+         * Disposes of this list for good, once its bus is shut down.
+         */
+        private synchronized void release()
         {
-            this();
-            this.parent = parent;
-            this.parent.addChild(this);
+            dispose();
+            released = true;
         }
 
-        /**
-         * Returns a ArrayList containing all listeners for this event,
-         * and all parent events for the specified priority.
-         *
-         * The list is returned with the listeners for the children events first.
-         *
-         * @param priority The Priority to get
-         * @return ArrayList containing listeners
-         */
-        public ArrayList<IEventListener> getListeners(EventPriority priority)
+        private ListenerListInst(int busID, ListenerListInst parent)
         {
-            ArrayList<IEventListener> ret = new ArrayList<>(priorities.get(priority.ordinal()));
-            if (parent != null)
-            {
-                ret.addAll(parent.getListeners(priority));
-            }
-            return ret;
+            this(busID);
+            this.parent = parent;
+            parent.children.add(this);
         }
 
         /**
@@ -196,68 +532,190 @@ public class ListenerList
          * List is returned in proper priority order.
          *
          * Automatically rebuilds the internal Array cache if its information is out of date.
+         * The returned array is shared and must not be modified.
          *
          * @return Array containing listeners
          */
         public IEventListener[] getListeners()
         {
-            if (shouldRebuild()) buildCache();
-            return listeners;
+            IEventListener[] ret = listeners;
+            return ret != null ? ret : buildCache();
+        }
+
+        /**
+         * Checks the registration counts up the parent chain, which stay current during a batch and don't
+         * need the snapshot to be rebuilt.
+         */
+        public boolean hasListeners()
+        {
+            for (ListenerListInst inst = this; inst != null; inst = inst.parent)
+            {
+                if (inst.count > 0)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the listeners compiled into a single dispatcher, see {@link CompiledDispatcher}.
+         * The dispatcher is regenerated whenever the listener array is rebuilt.
+         *
+         * @return Dispatcher for the current listeners
+         */
+        public CompiledDispatcher getDispatcher()
+        {
+            IEventListener[] listeners = getListeners();
+            CompiledDispatcher ret = dispatcher;
+            if (ret == null || ret.getListeners() != listeners)
+            {
+                ret = CompiledDispatcher.compile(listeners);
+                dispatcher = ret;
+            }
+            return ret;
         }
 
-        protected boolean shouldRebuild()
+        private ListenerPlan getPlan(Class<?> eventType)
         {
-            return rebuild;// || (parent != null && parent.shouldRebuild());
+            IEventListener[] listeners = getListeners();
+            ListenerPlan ret = plan;
+            if (ret == null || ret.listeners != listeners)
+            {
+                ret = new ListenerPlan(listeners, null, eventType);
+                plan = ret;
+            }
+            return ret;
         }
 
-        protected void forceRebuild()
+        private GenericIndex getGenericIndex()
         {
-            this.rebuild = true;
-            if (this.children != null)
+            IEventListener[] listeners = getListeners();
+            GenericIndex ret = generic;
+            if (ret == null || ret.source != listeners)
             {
-                for (ListenerListInst child : this.children)
-                    child.forceRebuild();
+                ret = new GenericIndex(listeners);
+                generic = ret;
             }
+            return ret;
         }
 
-        private void addChild(ListenerListInst child)
+        /**
+         * Invalidates this list and its children, or defers that to the end of the running batch.
+         */
+        private void invalidate()
         {
-            if (this.children == null)
-                this.children = new ArrayList<>();
-            this.children.add(child);
+            Batch batch = BATCH.get();
+            if (batch != null)
+            {
+                batch.pending.add(this);
+            }
+            else
+            {
+                forceRebuild(null);
+            }
         }
 
         /**
-         * Rebuild the local Array of listeners, returns early if there is no work to do.
+         * @param visited Lists already invalidated, or null to not track them
          */
-        private void buildCache()
+        private void forceRebuild(@Nullable Set<ListenerListInst> visited)
         {
-            if(parent != null && parent.shouldRebuild())
+            if (visited != null && !visited.add(this))
             {
-                parent.buildCache();
+                return;
             }
+            // bumped before clearing, see buildCache
+            this.version.incrementAndGet();
+            this.listeners = null;
+            for (ListenerListInst child : this.children)
+                child.forceRebuild(visited);
+        }
 
+        /**
+         * Rebuild the local Array of listeners, returns early if another thread already did the work.
+         */
+        private synchronized IEventListener[] buildCache()
+        {
+            IEventListener[] current = listeners;
+            if (current != null)
+            {
+                return current;
+            }
+
+            Object recorded = JfrEvents.isRebuildRecorded() ? JfrEvents.beginRebuild() : null;
+            int version = this.version.get();
+            EventPriority[] values = EventPriority.values();
+            List<List<IEventListener>> byPriority = new ArrayList<>(values.length);
+            for (int x = 0; x < values.length; x++)
+            {
+                byPriority.add(new ArrayList<>());
+            }
+            // listeners for the child events come first within each priority
+            for (ListenerListInst inst = this; inst != null; )
+            {
+                ListenerListInst next;
+                synchronized (inst)
+                {
+                    for (int x = 0; x < values.length; x++)
+                    {
+                        byPriority.get(x).addAll(inst.priorities.get(x));
+                    }
+                    next = inst.parent;
+                }
+                inst = next;
+            }
             ArrayList<IEventListener> ret = new ArrayList<IEventListener>();
-            Arrays.stream(EventPriority.values()).forEach(value -> {
-                List<IEventListener> listeners = getListeners(value);
+            for (EventPriority value : values)
+            {
+                List<IEventListener> listeners = byPriority.get(value.ordinal());
                 if (listeners.size() > 0) {
                     ret.add(value); //Add the priority to notify the event of it's current phase.
                     ret.addAll(listeners);
                 }
-            });
-            listeners = ret.toArray(new IEventListener[0]);
-            rebuild = false;
+            }
+            current = ret.toArray(new IEventListener[0]);
+            listeners = current;
+            if (this.version.get() != version)
+            {
+                // a parent changed while it was being read, and its invalidation may have come before the snapshot
+                listeners = null;
+            }
+            if (recorded != null)
+            {
+                JfrEvents.endRebuild(recorded, busID, current.length);
+            }
+            return current;
         }
 
-        public void register(EventPriority priority, IEventListener listener)
+        public synchronized void register(EventPriority priority, IEventListener listener)
         {
-            priorities.get(priority.ordinal()).add(listener);
-            this.forceRebuild();
+            if (released)
+            {
+                throw new IllegalStateException("Can not register " + listener + " to a shut down EventBus");
+            }
+            if (priorities.get(priority.ordinal()).add(listener))
+            {
+                count++;
+            }
+            this.invalidate();
         }
 
-        public void unregister(IEventListener listener)
+        public synchronized void unregister(IEventListener listener)
         {
-            priorities.stream().filter(list -> list.remove(listener)).forEach(list -> this.forceRebuild());
+            boolean removed = false;
+            for (LinkedHashSet<IEventListener> list : priorities)
+            {
+                if (list.remove(listener))
+                {
+                    count--;
+                    removed = true;
+                }
+            }
+            if (removed)
+            {
+                this.invalidate();
+            }
         }
     }
 }
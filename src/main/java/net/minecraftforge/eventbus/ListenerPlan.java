@@ -0,0 +1,125 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+
+/**
+ * A listener snapshot with the checks every listener does on each call worked out up front.
+ *
+ * The known listener types are unwrapped to the calls behind them, with whether they receive canceled events
+ * turned into {@link #skipTo}, so a post of an event that can't be canceled makes no checks at all and a canceled
+ * event jumps over each run of listeners not receiving it. Built once per snapshot, see {@link ListenerList#getPlan}.
+ */
+final class ListenerPlan
+{
+    /**
+     * The snapshot itself, as reported to the exception handler.
+     */
+    final IEventListener[] listeners;
+    /**
+     * What to call for each listener, without the cancellation and, where already matched, generic filter checks.
+     */
+    final IEventListener[] handlers;
+    /**
+     * For each index, the first index from there on to call once the event is canceled, or the length if none.
+     * Phase markers are always called, and so are listeners left wrapped, as they check for themselves.
+     */
+    final int[] skipTo;
+    // whether the event class the plan was built for is parallel, so posting it needs no lookup of its own
+    private final Class<?> eventType;
+    private final boolean parallel;
+
+    /**
+     * @param matched Generic type every filtered listener in the snapshot is known to match, if any
+     * @param eventType Class of the event the plan is built to post
+     */
+    ListenerPlan(IEventListener[] listeners, @Nullable Type matched, Class<?> eventType)
+    {
+        this.listeners = listeners;
+        this.eventType = eventType;
+        this.parallel = ParallelDispatcher.isParallel(eventType);
+        this.handlers = new IEventListener[listeners.length];
+        this.skipTo = new int[listeners.length];
+        boolean[] receives = new boolean[listeners.length];
+        for (int i = 0; i < listeners.length; i++)
+        {
+            IEventListener listener = listeners[i];
+            IEventListener handler = listener;
+            boolean receive = true;
+            if (listener instanceof ASMEventHandler)
+            {
+                ASMEventHandler asm = (ASMEventHandler)listener;
+                if (matches(asm.getFilter(), matched) && asm.getHandler() != null)
+                {
+                    handler = asm.getHandler();
+                    receive = asm.receiveCanceled();
+                }
+            }
+            else if (listener instanceof IndexedEventHandler)
+            {
+                IndexedEventHandler indexed = (IndexedEventHandler)listener;
+                if (matches(indexed.getFilter(), matched))
+                {
+                    handler = indexed.getHandler();
+                    receive = indexed.receiveCanceled();
+                }
+            }
+            else if (listener instanceof ConsumerEventHandler)
+            {
+                ConsumerEventHandler<?> consumer = (ConsumerEventHandler<?>)listener;
+                if (matches(consumer.getFilter(), matched))
+                {
+                    handler = consumer.getHandler();
+                    receive = consumer.receiveCanceled();
+                }
+            }
+            handlers[i] = handler;
+            receives[i] = receive || listener instanceof EventPriority;
+        }
+        int next = listeners.length;
+        for (int i = listeners.length - 1; i >= 0; i--)
+        {
+            if (receives[i])
+            {
+                next = i;
+            }
+            skipTo[i] = next;
+        }
+    }
+
+    /**
+     * @return Whether the event is {@link net.minecraftforge.eventbus.api.Parallel}, looked up only for a subclass
+     * sharing the listener list of the class the plan was built for
+     */
+    boolean isParallel(Event event)
+    {
+        return event.getClass() == eventType ? parallel : ParallelDispatcher.isParallel(event.getClass());
+    }
+
+    private static boolean matches(@Nullable Type filter, @Nullable Type matched)
+    {
+        return filter == null || filter == matched;
+    }
+}
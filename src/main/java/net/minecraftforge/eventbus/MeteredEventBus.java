@@ -0,0 +1,168 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.eventbus.api.IEventMetrics;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bus built with {@link net.minecraftforge.eventbus.api.BusBuilder#setMetrics}. Counting and timing live in these
+ * overrides of the dispatch loops rather than behind checks in {@link EventBus}, so buses without metrics don't pay
+ * for them. Every dispatch path goes through the listener plan or the checks of the parallel dispatcher, so only
+ * listeners that actually run are counted. Compiled dispatch is turned off, the generated dispatcher has no per
+ * listener hook.
+ */
+final class MeteredEventBus extends EventBus
+{
+    private final EventMetrics metrics = new EventMetrics();
+
+    MeteredEventBus(final BusBuilderImpl busBuilder)
+    {
+        super(busBuilder);
+        if (busBuilder.metricsMBean != null)
+        {
+            metrics.registerMBean(busBuilder.metricsMBean);
+        }
+    }
+
+    @Override
+    public boolean post(Event event)
+    {
+        metrics.posted(event.getClass());
+        return super.post(event);
+    }
+
+    @Override
+    public <T extends Event> boolean post(Class<T> eventType, Supplier<? extends T> factory)
+    {
+        // counted by post(Event) once there are listeners to create the event for
+        return hasListeners(eventType) && post(factory.get());
+    }
+
+    @Override
+    public BitSet postAll(List<? extends Event> events)
+    {
+        events.forEach(event -> metrics.posted(event.getClass()));
+        return super.postAll(events);
+    }
+
+    @Override
+    public boolean[] postAll(Event[] events)
+    {
+        for (Event event : events)
+        {
+            metrics.posted(event.getClass());
+        }
+        return super.postAll(events);
+    }
+
+    /**
+     * Same as {@link EventBus#dispatch}, timing each handler the plan calls.
+     */
+    @Override
+    void dispatch(Event event, ListenerPlan plan)
+    {
+        IEventListener[] listeners = plan.listeners;
+        IEventListener[] handlers = plan.handlers;
+        int index = 0;
+        try
+        {
+            while (index < handlers.length)
+            {
+                if (event.isCancelable() && event.isCanceled() && (index = plan.skipTo[index]) == handlers.length)
+                {
+                    break;
+                }
+                metrics.invoke(listeners[index], handlers[index], event);
+                index++;
+            }
+        }
+        catch (Throwable throwable)
+        {
+            throw failed(event, listeners, index, throwable);
+        }
+    }
+
+    @Override
+    void dispatchListenerMajor(List<? extends Event> events, int start, int end, ListenerPlan plan)
+    {
+        IEventListener[] listeners = plan.listeners;
+        int index = 0;
+        int current = start;
+        try
+        {
+            for (; index < listeners.length; index++)
+            {
+                // a listener receives the canceled events too where the plan doesn't skip over it
+                boolean receivesCanceled = plan.skipTo[index] == index;
+                for (current = start; current < end; current++)
+                {
+                    Event event = events.get(current);
+                    if (receivesCanceled || !event.isCancelable() || !event.isCanceled())
+                    {
+                        metrics.invoke(listeners[index], plan.handlers[index], event);
+                    }
+                }
+            }
+        }
+        catch (Throwable throwable)
+        {
+            throw failed(events.get(current), listeners, index, throwable);
+        }
+    }
+
+    @Override
+    void invoke(IEventListener listener, IEventListener handler, Event event)
+    {
+        metrics.invoke(listener, handler, event);
+    }
+
+    @Override
+    public void unregister(Object object)
+    {
+        List<Registration> removed = unregisterTarget(object);
+        if (removed != null)
+        {
+            for (Registration registration : removed)
+            {
+                metrics.remove(registration.listener);
+            }
+        }
+    }
+
+    @Override
+    public Optional<IEventMetrics> getMetrics()
+    {
+        return Optional.of(metrics);
+    }
+
+    @Override
+    public void shutdown()
+    {
+        super.shutdown();
+        metrics.clearListeners();
+        metrics.unregisterMBean();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dispatch for {@link Parallel} events. The listeners between two priority markers of a snapshot run as
+ * one fork/join task each, with the cancellation and generic checks done up front for the whole phase so a
+ * listener cancelling the event doesn't race with the others.
+ */
+final class ParallelDispatcher
+{
+    private static final ClassValue<Boolean> PARALLEL = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            return type.isAnnotationPresent(Parallel.class);
+        }
+    };
+
+    private ParallelDispatcher()
+    {
+    }
+
+    /**
+     * Posts look this up through {@link ListenerPlan#isParallel}, which keeps it for the class its snapshot is posted with.
+     */
+    static boolean isParallel(Class<?> eventType)
+    {
+        return PARALLEL.get(eventType);
+    }
+
+    /**
+     * @throws CompiledDispatcher.ListenerFailure wrapping whatever a listener threw, along with the index of that listener
+     */
+    static void invoke(EventBus bus, Event event, IEventListener[] listeners, ForkJoinPool pool)
+    {
+        int start = 0;
+        while (start < listeners.length)
+        {
+            if (listeners[start] instanceof EventPriority)
+            {
+                event.setPhase((EventPriority)listeners[start]);
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < listeners.length && !(listeners[end] instanceof EventPriority))
+            {
+                end++;
+            }
+            invokePhase(bus, event, listeners, start, end, pool);
+            start = end;
+        }
+    }
+
+    private static void invokePhase(EventBus bus, Event event, IEventListener[] listeners, int start, int end, ForkJoinPool pool)
+    {
+        boolean canceled = event.isCancelable() && event.isCanceled();
+        if (end - start == 1)
+        {
+            try
+            {
+                dispatch(bus, listeners[start], event, canceled);
+            }
+            catch (Throwable throwable)
+            {
+                throw CompiledDispatcher.failed(start, throwable);
+            }
+            return;
+        }
+
+        PhaseTask task = new PhaseTask(bus, event, listeners, start, end, canceled, new AtomicReference<>());
+        if (ForkJoinTask.getPool() == pool)
+        {
+            task.invoke();
+        }
+        else
+        {
+            pool.invoke(task);
+        }
+        RuntimeException failure = task.failure.get();
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    /**
+     * Calls the listener through {@link EventBus#invoke(IEventListener, IEventListener, Event)}, with the cancellation
+     * check done against the given state instead of the event's current one. Listeners that don't receive the event
+     * aren't handed to the bus at all.
+     */
+    static void dispatch(EventBus bus, IEventListener listener, Event event, boolean canceled)
+    {
+        if (listener instanceof ASMEventHandler)
+        {
+            ASMEventHandler asm = (ASMEventHandler)listener;
+            if (accepts(event, canceled, asm.receiveCanceled(), asm.getFilter()))
+                bus.invoke(listener, asm.getHandler(), event);
+        }
+        else if (listener instanceof IndexedEventHandler)
+        {
+            IndexedEventHandler indexed = (IndexedEventHandler)listener;
+            if (accepts(event, canceled, indexed.receiveCanceled(), indexed.getFilter()))
+                bus.invoke(listener, indexed.getHandler(), event);
+        }
+        else if (listener instanceof ConsumerEventHandler)
+        {
+            ConsumerEventHandler<?> consumer = (ConsumerEventHandler<?>)listener;
+            if (accepts(event, canceled, consumer.receiveCanceled(), consumer.getFilter()))
+                bus.invoke(listener, consumer.getHandler(), event);
+        }
+        else
+        {
+            bus.invoke(listener, listener, event);
+        }
+    }
+
+    private static boolean accepts(Event event, boolean canceled, boolean receiveCanceled, java.lang.reflect.Type filter)
+    {
+        return (!canceled || receiveCanceled) && (filter == null || filter == ((IGenericEvent<?>)event).getGenericType());
+    }
+
+    private static final class PhaseTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        private final EventBus bus;
+        private final Event event;
+        private final IEventListener[] listeners;
+        private final int start;
+        private final int end;
+        private final boolean canceled;
+        private final AtomicReference<RuntimeException> failure;
+
+        PhaseTask(EventBus bus, Event event, IEventListener[] listeners, int start, int end, boolean canceled, AtomicReference<RuntimeException> failure)
+        {
+            this.bus = bus;
+            this.event = event;
+            this.listeners = listeners;
+            this.start = start;
+            this.end = end;
+            this.canceled = canceled;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start > 1)
+            {
+                int middle = (start + end) >>> 1;
+                invokeAll(new PhaseTask(bus, event, listeners, start, middle, canceled, failure),
+                        new PhaseTask(bus, event, listeners, middle, end, canceled, failure));
+                return;
+            }
+            try
+            {
+                dispatch(bus, listeners[start], event, canceled);
+            }
+            catch (Throwable throwable)
+            {
+                failure.compareAndSet(null, CompiledDispatcher.failed(start, throwable));
+            }
+        }
+    }
+}
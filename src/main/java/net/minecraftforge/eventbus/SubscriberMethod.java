@@ -0,0 +1,251 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IGenericEvent;
+import net.minecraftforge.eventbus.api.ISubscriberIndex;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * A resolved {@link SubscribeEvent} method. The subscriber methods of a class are found once and cached on
+ * the class, so registering further instances of it needs no reflection. Classes with a generated
+ * {@link ISubscriberIndex} skip this entirely, see {@link #getIndex}.
+ */
+final class SubscriberMethod
+{
+    private static final SubscriberMethod[] EMPTY = new SubscriberMethod[0];
+    private static final ClassValue<SubscriberMethod[]> INSTANCE_METHODS = new ClassValue<SubscriberMethod[]>()
+    {
+        @Override
+        protected SubscriberMethod[] computeValue(Class<?> type)
+        {
+            return findInstanceMethods(type);
+        }
+    };
+    private static final ClassValue<SubscriberMethod[]> STATIC_METHODS = new ClassValue<SubscriberMethod[]>()
+    {
+        @Override
+        protected SubscriberMethod[] computeValue(Class<?> type)
+        {
+            return findStaticMethods(type);
+        }
+    };
+    private static final ClassValue<Optional<ISubscriberIndex>> INDEXES = new ClassValue<Optional<ISubscriberIndex>>()
+    {
+        @Override
+        protected Optional<ISubscriberIndex> computeValue(Class<?> type)
+        {
+            return findIndex(type);
+        }
+    };
+
+    private final Method method;
+    private final Class<?> eventType;
+    private final EventPriority priority;
+    private final boolean receiveCanceled;
+    private final boolean blocking;
+    @Nullable
+    private final Type filter;
+
+    private SubscriberMethod(Method method, Method real)
+    {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 1)
+        {
+            throw new IllegalArgumentException(
+                    "Method " + method + " has @SubscribeEvent annotation. " +
+                    "It has " + parameterTypes.length + " arguments, " +
+                    "but event handler methods require a single argument only."
+            );
+        }
+
+        Class<?> eventType = parameterTypes[0];
+
+        if (!Event.class.isAssignableFrom(eventType))
+        {
+            throw new IllegalArgumentException(
+                    "Method " + method + " has @SubscribeEvent annotation, " +
+                            "but takes an argument that is not an Event subtype : " + eventType);
+        }
+
+        this.method = real;
+        this.eventType = eventType;
+        SubscribeEvent subInfo = real.getAnnotation(SubscribeEvent.class);
+        this.priority = subInfo.priority();
+        this.receiveCanceled = subInfo.receiveCanceled();
+        this.blocking = subInfo.blocking();
+        Type filter = null;
+        if (IGenericEvent.class.isAssignableFrom(eventType))
+        {
+            Type type = real.getGenericParameterTypes()[0];
+            if (type instanceof ParameterizedType)
+            {
+                filter = ((ParameterizedType)type).getActualTypeArguments()[0];
+            }
+        }
+        this.filter = filter;
+    }
+
+    /**
+     * @return The non-static subscriber methods of the class and its supertypes
+     */
+    static SubscriberMethod[] forInstance(Class<?> type)
+    {
+        return INSTANCE_METHODS.get(type);
+    }
+
+    /**
+     * @return The static subscriber methods of the class
+     */
+    static SubscriberMethod[] forStatic(Class<?> type)
+    {
+        return STATIC_METHODS.get(type);
+    }
+
+    /**
+     * @return The index generated for exactly this class at build time, or null if it has none
+     */
+    @Nullable
+    static ISubscriberIndex getIndex(Class<?> type)
+    {
+        return INDEXES.get(type).orElse(null);
+    }
+
+    private static Optional<ISubscriberIndex> findIndex(Class<?> type)
+    {
+        Class<?> indexClass;
+        try
+        {
+            indexClass = Class.forName(type.getName() + ISubscriberIndex.SUFFIX, true, type.getClassLoader());
+        }
+        catch (ClassNotFoundException e)
+        {
+            return Optional.empty();
+        }
+        if (!ISubscriberIndex.class.isAssignableFrom(indexClass))
+        {
+            return Optional.empty();
+        }
+        try
+        {
+            return Optional.of((ISubscriberIndex)indexClass.getConstructor().newInstance());
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException("Failed to create subscriber index " + indexClass.getName(), e);
+        }
+    }
+
+    private static SubscriberMethod[] findStaticMethods(Class<?> clazz)
+    {
+        List<SubscriberMethod> ret = new ArrayList<>();
+        for (Method m : clazz.getMethods())
+        {
+            if (Modifier.isStatic(m.getModifiers()) && m.isAnnotationPresent(SubscribeEvent.class))
+            {
+                ret.add(new SubscriberMethod(m, m));
+            }
+        }
+        return ret.isEmpty() ? EMPTY : ret.toArray(EMPTY);
+    }
+
+    private static SubscriberMethod[] findInstanceMethods(Class<?> clazz)
+    {
+        final HashSet<Class<?>> classes = new HashSet<>();
+        typesFor(clazz, classes);
+        List<SubscriberMethod> ret = new ArrayList<>();
+        for (Method m : clazz.getMethods())
+        {
+            if (Modifier.isStatic(m.getModifiers()))
+            {
+                continue;
+            }
+            for (Class<?> c : classes)
+            {
+                Method real = getDeclMethod(c, m);
+                if (real != null && real.isAnnotationPresent(SubscribeEvent.class))
+                {
+                    ret.add(new SubscriberMethod(m, real));
+                    break;
+                }
+            }
+        }
+        return ret.isEmpty() ? EMPTY : ret.toArray(EMPTY);
+    }
+
+    @Nullable
+    private static Method getDeclMethod(final Class<?> clz, final Method in) {
+        try {
+            return clz.getDeclaredMethod(in.getName(), in.getParameterTypes());
+        } catch (NoSuchMethodException nse) {
+            return null;
+        }
+    }
+
+    private static void typesFor(final Class<?> clz, final Set<Class<?>> visited) {
+        if (clz.getSuperclass() == null) return;
+        typesFor(clz.getSuperclass(),visited);
+        Arrays.stream(clz.getInterfaces()).forEach(i->typesFor(i, visited));
+        visited.add(clz);
+    }
+
+    /**
+     * @return The annotated method, as declared by the class that carries the annotation
+     */
+    Method getMethod()
+    {
+        return method;
+    }
+
+    Class<?> getEventType()
+    {
+        return eventType;
+    }
+
+    EventPriority getPriority()
+    {
+        return priority;
+    }
+
+    boolean receiveCanceled()
+    {
+        return receiveCanceled;
+    }
+
+    boolean isBlocking()
+    {
+        return blocking;
+    }
+
+    @Nullable
+    Type getFilter()
+    {
+        return filter;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus.api;
+
+/**
+ * The order {@link IEventBus#postAll} calls listeners in for a run of events of the same type.
+ * Either way each event sees its listeners in priority order, only the interleaving between events differs.
+ */
+public enum BatchOrder
+{
+    /**
+     * Post each event fully before the next one, like separate calls to {@link IEventBus#post}.
+     */
+    EVENT_MAJOR,
+    /**
+     * Call each listener for every event before moving on to the next listener. Keeps one listener hot at a time,
+     * which suits many events with a few cheap listeners.
+     */
+    LISTENER_MAJOR
+}
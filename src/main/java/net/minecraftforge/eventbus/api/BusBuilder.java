@@ -0,0 +1,84 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus.api;
+
+import net.minecraftforge.eventbus.BusBuilderImpl;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Build a bus with non-default settings
+ */
+public interface BusBuilder
+{
+    static BusBuilder builder()
+    {
+        return new BusBuilderImpl();
+    }
+
+    /**
+     * @param handler Handler notified of any exception thrown by a listener, defaults to logging it
+     */
+    BusBuilder setExceptionHandler(IEventExceptionHandler handler);
+
+    /**
+     * Compile the listeners of each event type into a single generated dispatcher class.
+     * This makes posting to events with many listeners cheaper, at the cost of generating a class
+     * whenever the listeners for an event change.
+     */
+    BusBuilder setCompiledDispatch(boolean compiled);
+
+    /**
+     * @param order How {@link IEventBus#postAll} walks events and listeners, defaults to {@link BatchOrder#EVENT_MAJOR}
+     */
+    BusBuilder setBatchOrder(BatchOrder order);
+
+    /**
+     * @param factory How {@link SubscribeEvent} methods are turned into listeners, defaults to {@link HandlerFactory#ASM}
+     */
+    BusBuilder setHandlerFactory(HandlerFactory factory);
+
+    /**
+     * Run listeners marked {@link SubscribeEvent#blocking()} on virtual threads, or on a bounded pool of platform
+     * threads on runtimes without them. Priority phases still run in order, each waits for its blocking listeners
+     * before the next one starts.
+     */
+    BusBuilder setBlockingDispatch(boolean blocking);
+
+    /**
+     * @param executor Executor {@link IEventBus#postAsync} dispatches on, defaults to {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     *                 The listeners of {@link Parallel} events run on it too if it is a ForkJoinPool, on the common pool if not.
+     */
+    BusBuilder setExecutor(Executor executor);
+
+    /**
+     * Count posts and time every listener call, see {@link IEventBus#getMetrics()}. Buses without metrics run
+     * the usual dispatch loops, so this costs nothing unless enabled.
+     */
+    BusBuilder setMetrics(boolean metrics);
+
+    /**
+     * Enable metrics and publish them as an MXBean named {@code net.minecraftforge.eventbus:type=EventBus,name=<name>}
+     * on the platform MBean server, until the bus is {@link IEventBus#shutdown() shut down}.
+     */
+    BusBuilder setMetricsMBean(String name);
+
+    IEventBus build();
+}
@@ -131,6 +131,17 @@ public class Event
         result = value;
     }
 
+    /**
+     * Clears the cancellation, result and phase so the event can be posted again, see {@link IEventBus#release}.
+     * Events carrying state of their own should override this to clear it as well, and call super.
+     */
+    public void reset()
+    {
+        isCanceled = false;
+        result = Result.DEFAULT;
+        phase = null;
+    }
+
     /**
      * Called by the base constructor, this is used by ASM generated
      * event classes to setup various functionality such as the listener list.
@@ -0,0 +1,40 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus.api;
+
+/**
+ * How a bus turns {@link SubscribeEvent} methods into {@link IEventListener}s.
+ */
+public enum HandlerFactory
+{
+    /**
+     * Generate a wrapper class per method with ASM. Wrappers are defined in a class loader of their own for each
+     * subscriber class loader, and are unloaded along with it.
+     */
+    ASM,
+    /**
+     * Spin the listener with {@link java.lang.invoke.LambdaMetafactory}. The generated classes belong to the
+     * subscriber's own class loader, as hidden classes on runtimes that support them, so they are unloaded
+     * along with it without a loader of their own.
+     * Methods of classes the bus can't get full private access to, like those of another module from Java 14 on,
+     * get ASM wrappers instead.
+     */
+    LAMBDA_METAFACTORY
+}
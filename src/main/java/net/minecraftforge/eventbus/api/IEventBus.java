@@ -2,13 +2,33 @@ package net.minecraftforge.eventbus.api;
 
 import net.minecraftforge.eventbus.EventBus;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface IEventBus {
     <T extends Event> void addListener(Consumer<T> consumer);
 
     void register(Object target);
 
+    /**
+     * Register every target, see {@link #register(Object)}.
+     * The listener caches of affected events are invalidated once at the end, rather than once per listener,
+     * and with the ASM handler factory the wrapper classes for a large batch are generated in parallel.
+     */
+    void registerAll(Collection<?> targets);
+
+    /**
+     * Run registrations and unregistrations as a batch. Listener caches of affected events are invalidated once
+     * when the action returns. Until then any post may still see the previous listeners, including posts made by the
+     * action itself on the batching thread, so listeners added in the batch are only certain to be called afterwards.
+     */
+    void batch(Runnable action);
+
     <T extends Event> void addListener(EventPriority priority, Consumer<T> consumer);
 
     <T extends Event> void addListener(EventPriority priority, boolean receiveCancelled, Consumer<T> consumer);
@@ -27,6 +47,69 @@ public interface IEventBus {
 
     boolean post(Event event);
 
+    /**
+     * Post an event only created if the bus has listeners for its type, for events that are expensive to build.
+     *
+     * @return Whether the event was cancelled, false if it was never created
+     */
+    <T extends Event> boolean post(Class<T> eventType, Supplier<? extends T> factory);
+
+    /**
+     * @return Whether posting an event of the type would reach any listener, registered for it or one of its parents
+     */
+    boolean hasListeners(Class<? extends Event> eventType);
+
+    /**
+     * Post every event in order, looking the listeners up once for each run of events of the same type.
+     * See {@link BusBuilder#setBatchOrder} for the order listeners are called in.
+     *
+     * @return The indexes of the events that were cancelled
+     */
+    BitSet postAll(List<? extends Event> events);
+
+    /**
+     * Same as {@link #postAll(List)}.
+     *
+     * @return Whether each event was cancelled
+     */
+    boolean[] postAll(Event[] events);
+
+    /**
+     * Take an event of the given type from its pool, or create one with its no-arg constructor if the pool is empty.
+     * Pools are shared between buses and threads, and are held by the event class so they are unloaded with it.
+     */
+    <T extends Event> T acquire(Class<T> type);
+
+    /**
+     * {@link Event#reset() Reset} the event and return it to its pool. The event must not be used after this, a later
+     * {@link #acquire} may hand it out again.
+     *
+     * @throws IllegalStateException If the event is still in the pool from an earlier release
+     */
+    void release(Event event);
+
+    /**
+     * Post the event on the bus executor, see {@link BusBuilder#setExecutor}. Listeners are called one after
+     * another in the same order as {@link #post(Event)}, just not on the calling thread.
+     *
+     * @return Completes with whether the event was cancelled once every listener has run, or exceptionally if
+     * a listener threw
+     */
+    CompletableFuture<Boolean> postAsync(Event event);
+
+    /**
+     * @return The counters of the bus, empty unless it was built with {@link BusBuilder#setMetrics}
+     */
+    Optional<IEventMetrics> getMetrics();
+
+    /**
+     * Drop every listener and free the storage the bus holds in each event type, so short lived buses don't leak.
+     * Posting afterwards calls no listener and registering throws {@link IllegalStateException}.
+     * Posts racing with the shutdown on other threads call either the listeners of this bus or none, never those of
+     * a bus created afterwards.
+     */
+    void shutdown();
+
     static IEventBus create() {
         return new EventBus();
     }
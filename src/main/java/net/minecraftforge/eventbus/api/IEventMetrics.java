@@ -0,0 +1,47 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters collected by a bus built with {@link BusBuilder#setMetrics}, see {@link IEventBus#getMetrics()}.
+ * Listeners are only timed for posts dispatched on the posting thread, {@link Parallel} events and blocking
+ * dispatch are counted as posts but their listeners are not timed.
+ */
+public interface IEventMetrics
+{
+    /**
+     * @return How many events of exactly this type were posted
+     */
+    long getPostCount(Class<? extends Event> eventType);
+
+    Map<Class<? extends Event>, Long> getPostCounts();
+
+    /**
+     * @return A snapshot of every listener called so far, the one that took the most time in total first
+     */
+    List<ListenerMetrics> getListenerMetrics();
+
+    /**
+     * Start counting from zero again.
+     */
+    void reset();
+}
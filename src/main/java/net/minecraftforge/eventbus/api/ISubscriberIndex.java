@@ -0,0 +1,52 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus.api;
+
+import javax.annotation.Nullable;
+
+/**
+ * Subscriber table generated at build time by the eventbus annotation processor for a class with
+ * {@link SubscribeEvent} methods. When a class has an index, {@link IEventBus#register(Object)} uses it
+ * instead of discovering the methods by reflection and generating wrappers for them.
+ * <p>
+ * The index of a class is named after its binary name followed by {@link #SUFFIX}, and only covers that exact
+ * class, subclasses need their own.
+ */
+public interface ISubscriberIndex
+{
+    String SUFFIX = "$$SubscriberIndex";
+
+    /**
+     * @return The non-static subscribers of the class, including the ones it inherits
+     */
+    IndexedSubscriber[] getInstanceSubscribers();
+
+    /**
+     * @return The static subscribers of the class
+     */
+    IndexedSubscriber[] getStaticSubscribers();
+
+    /**
+     * Creates the listener that calls a subscriber directly.
+     *
+     * @param id The {@link IndexedSubscriber#getId() id} of the subscriber
+     * @param target The instance to call the subscriber on, or null for a static subscriber
+     */
+    IEventListener createListener(int id, @Nullable Object target);
+}
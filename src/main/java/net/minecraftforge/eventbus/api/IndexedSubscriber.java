@@ -0,0 +1,96 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus.api;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+
+/**
+ * A {@link SubscribeEvent} method as recorded in an {@link ISubscriberIndex}.
+ */
+public final class IndexedSubscriber
+{
+    private final int id;
+    private final Class<? extends Event> eventType;
+    private final EventPriority priority;
+    private final boolean receiveCanceled;
+    private final boolean blocking;
+    @Nullable
+    private final Type filter;
+    private final String name;
+
+    public IndexedSubscriber(int id, Class<? extends Event> eventType, EventPriority priority, boolean receiveCanceled, boolean blocking, @Nullable Type filter, String name)
+    {
+        this.id = id;
+        this.eventType = eventType;
+        this.priority = priority;
+        this.receiveCanceled = receiveCanceled;
+        this.blocking = blocking;
+        this.filter = filter;
+        this.name = name;
+    }
+
+    /**
+     * @return The id passed to {@link ISubscriberIndex#createListener} for this subscriber
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    public Class<? extends Event> getEventType()
+    {
+        return eventType;
+    }
+
+    public EventPriority getPriority()
+    {
+        return priority;
+    }
+
+    public boolean receiveCanceled()
+    {
+        return receiveCanceled;
+    }
+
+    /**
+     * @see SubscribeEvent#blocking()
+     */
+    public boolean isBlocking()
+    {
+        return blocking;
+    }
+
+    /**
+     * @return The generic type a {@link IGenericEvent} must have for the subscriber to be called, or null for any
+     */
+    @Nullable
+    public Type getFilter()
+    {
+        return filter;
+    }
+
+    /**
+     * @return The name of the subscriber method
+     */
+    public String getName()
+    {
+        return name;
+    }
+}
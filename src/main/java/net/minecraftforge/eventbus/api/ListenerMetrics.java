@@ -0,0 +1,80 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus.api;
+
+/**
+ * Snapshot of the calls to a single listener, see {@link IEventMetrics#getListenerMetrics()}.
+ */
+public final class ListenerMetrics
+{
+    private final String listener;
+    private final long invocations;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long exceptions;
+
+    public ListenerMetrics(String listener, long invocations, long totalNanos, long maxNanos, long exceptions)
+    {
+        this.listener = listener;
+        this.invocations = invocations;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * @return Description of the listener, as printed when it throws
+     */
+    public String getListener()
+    {
+        return listener;
+    }
+
+    public long getInvocations()
+    {
+        return invocations;
+    }
+
+    public long getTotalNanos()
+    {
+        return totalNanos;
+    }
+
+    /**
+     * @return Time the slowest single call took
+     */
+    public long getMaxNanos()
+    {
+        return maxNanos;
+    }
+
+    /**
+     * @return How many calls threw
+     */
+    public long getExceptions()
+    {
+        return exceptions;
+    }
+
+    @Override
+    public String toString()
+    {
+        return listener + ": " + invocations + " calls, " + totalNanos + "ns total, " + maxNanos + "ns max, " + exceptions + " exceptions";
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.eventbus.api;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks an event whose listeners don't depend on each other within a priority. The listeners of each
+ * {@link EventPriority} phase are called concurrently on the bus executor when that is a
+ * {@link java.util.concurrent.ForkJoinPool}, see {@link BusBuilder#setExecutor}, and on the common pool otherwise, as
+ * a phase is split up into fork/join tasks. The next phase only starts once they have all returned.
+ *
+ * Cancellation is checked when a phase starts, cancelling the event from a listener only affects later phases.
+ * The annotation is not inherited, subclasses of a parallel event are posted serially unless marked as well.
+ */
+@Retention(value = RUNTIME)
+@Target(value = TYPE)
+public @interface Parallel{}
@@ -31,4 +31,9 @@ public @interface SubscribeEvent
 {
     EventPriority priority() default EventPriority.NORMAL;
     boolean receiveCanceled() default false;
+    /**
+     * The listener may block, on buses with {@link BusBuilder#setBlockingDispatch blocking dispatch} it is run off
+     * the posting thread.
+     */
+    boolean blocking() default false;
 }
@@ -0,0 +1,417 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.eventbus.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates an {@code ISubscriberIndex} for every class declaring {@code @SubscribeEvent} methods.
+ *
+ * The index lists the same subscribers that {@code EventBus.register} would find by reflection, and has a
+ * nested invoker class per subscriber that calls the method directly. Classes the index could not call
+ * into, such as ones with non-public subscribers, are skipped with a warning and keep using reflection.
+ */
+@SupportedAnnotationTypes(SubscriberIndexProcessor.SUBSCRIBE_EVENT)
+public class SubscriberIndexProcessor extends AbstractProcessor
+{
+    static final String SUBSCRIBE_EVENT = "net.minecraftforge.eventbus.api.SubscribeEvent";
+    private static final String API = "net.minecraftforge.eventbus.api";
+    private static final String EVENT = API + ".Event";
+    private static final String GENERIC_EVENT = API + ".IGenericEvent";
+    private static final String SUFFIX = "$$SubscriberIndex";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        TypeElement subscribeEvent = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE_EVENT);
+        if (subscribeEvent == null)
+        {
+            return false;
+        }
+        Set<TypeElement> owners = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(subscribeEvent))
+        {
+            owners.add((TypeElement)element.getEnclosingElement());
+        }
+        for (TypeElement owner : owners)
+        {
+            String binaryName = processingEnv.getElementUtils().getBinaryName(owner).toString();
+            if (generated.add(binaryName))
+            {
+                new IndexWriter(owner, binaryName).write();
+            }
+        }
+        return false;
+    }
+
+    private static final class Subscriber
+    {
+        final ExecutableElement method;
+        final boolean isStatic;
+        final String eventType;
+        final String priority;
+        final boolean receiveCanceled;
+        final boolean blocking;
+        final String filter;
+
+        Subscriber(ExecutableElement method, String eventType, String priority, boolean receiveCanceled, boolean blocking, String filter)
+        {
+            this.method = method;
+            this.isStatic = method.getModifiers().contains(Modifier.STATIC);
+            this.eventType = eventType;
+            this.priority = priority;
+            this.receiveCanceled = receiveCanceled;
+            this.blocking = blocking;
+            this.filter = filter;
+        }
+    }
+
+    private final class IndexWriter
+    {
+        private final Elements elements = processingEnv.getElementUtils();
+        private final Types types = processingEnv.getTypeUtils();
+        private final TypeElement owner;
+        private final PackageElement pkg;
+        private final String binaryName;
+        private final TypeMirror event;
+        private final TypeMirror genericEvent;
+
+        IndexWriter(TypeElement owner, String binaryName)
+        {
+            this.owner = owner;
+            this.pkg = elements.getPackageOf(owner);
+            this.binaryName = binaryName;
+            this.event = types.erasure(elements.getTypeElement(EVENT).asType());
+            this.genericEvent = types.erasure(elements.getTypeElement(GENERIC_EVENT).asType());
+        }
+
+        void write()
+        {
+            if (owner.getKind() != ElementKind.CLASS && owner.getKind() != ElementKind.ENUM)
+            {
+                return;
+            }
+            if (!isAccessible(owner))
+            {
+                skip("it is not accessible from its package", owner);
+                return;
+            }
+
+            List<Subscriber> instance = new ArrayList<>();
+            List<Subscriber> statics = new ArrayList<>();
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(owner)))
+            {
+                boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+                AnnotationMirror annotation = isStatic ? getSubscribeEvent(method) : findSubscribeEvent(method);
+                if (annotation == null)
+                {
+                    continue;
+                }
+                Subscriber subscriber = resolve(method, annotation);
+                if (subscriber == null)
+                {
+                    return;
+                }
+                (isStatic ? statics : instance).add(subscriber);
+            }
+
+            String simpleName = binaryName.substring(pkg.isUnnamed() ? 0 : pkg.getQualifiedName().length() + 1) + SUFFIX;
+            String indexName = pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+            try (Writer writer = processingEnv.getFiler().createSourceFile(indexName, owner).openWriter())
+            {
+                writeSource(new PrintWriter(writer), simpleName, instance, statics);
+            }
+            catch (IOException e)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write subscriber index " + indexName + ": " + e, owner);
+            }
+        }
+
+        private Subscriber resolve(ExecutableElement method, AnnotationMirror annotation)
+        {
+            if (method.getParameters().size() != 1)
+            {
+                error("@SubscribeEvent methods require a single argument only", method);
+                return null;
+            }
+            TypeMirror parameter = method.getParameters().get(0).asType();
+            TypeMirror eventType = types.erasure(parameter);
+            if (!types.isAssignable(eventType, event))
+            {
+                error("@SubscribeEvent method takes an argument that is not an Event subtype : " + eventType, method);
+                return null;
+            }
+            if (!method.getModifiers().contains(Modifier.PUBLIC))
+            {
+                // Reflection only sees public methods, the index must not pick up more than it would
+                skip(method + " is not public", method);
+                return null;
+            }
+            if (eventType.getKind() == TypeKind.DECLARED && !isAccessible((TypeElement)types.asElement(eventType)))
+            {
+                skip(method + " can not be called from the index", method);
+                return null;
+            }
+
+            String filter = "null";
+            if (types.isAssignable(eventType, genericEvent) && parameter.getKind() == TypeKind.DECLARED && !((DeclaredType)parameter).getTypeArguments().isEmpty())
+            {
+                TypeMirror argument = ((DeclaredType)parameter).getTypeArguments().get(0);
+                if ((argument.getKind() != TypeKind.DECLARED && argument.getKind() != TypeKind.ARRAY) || !types.isSameType(argument, types.erasure(argument)))
+                {
+                    skip("the generic type of " + method + " is not a plain class", method);
+                    return null;
+                }
+                if (argument.getKind() == TypeKind.DECLARED && !isAccessible((TypeElement)types.asElement(argument)))
+                {
+                    skip("the generic type of " + method + " is not accessible", method);
+                    return null;
+                }
+                filter = argument + ".class";
+            }
+
+            String priority = "NORMAL";
+            boolean receiveCanceled = false;
+            boolean blocking = false;
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(annotation).entrySet())
+            {
+                String name = entry.getKey().getSimpleName().toString();
+                if (name.equals("priority"))
+                    priority = ((VariableElement)entry.getValue().getValue()).getSimpleName().toString();
+                else if (name.equals("receiveCanceled"))
+                    receiveCanceled = (Boolean)entry.getValue().getValue();
+                else if (name.equals("blocking"))
+                    blocking = (Boolean)entry.getValue().getValue();
+            }
+            return new Subscriber(method, eventType.toString(), priority, receiveCanceled, blocking, filter);
+        }
+
+        /**
+         * Instance subscribers may carry the annotation on any method they override, like the reflective lookup allows.
+         */
+        private AnnotationMirror findSubscribeEvent(ExecutableElement method)
+        {
+            AnnotationMirror annotation = getSubscribeEvent(method);
+            if (annotation != null)
+            {
+                return annotation;
+            }
+            Deque<TypeMirror> pending = new ArrayDeque<>(types.directSupertypes(owner.asType()));
+            while (!pending.isEmpty())
+            {
+                TypeMirror type = pending.poll();
+                TypeElement element = (TypeElement)types.asElement(type);
+                for (ExecutableElement other : ElementFilter.methodsIn(element.getEnclosedElements()))
+                {
+                    if (other != method && elements.overrides(method, other, owner))
+                    {
+                        annotation = getSubscribeEvent(other);
+                        if (annotation != null)
+                        {
+                            return annotation;
+                        }
+                    }
+                }
+                pending.addAll(types.directSupertypes(type));
+            }
+            return null;
+        }
+
+        private AnnotationMirror getSubscribeEvent(ExecutableElement method)
+        {
+            for (AnnotationMirror annotation : method.getAnnotationMirrors())
+            {
+                if (((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SUBSCRIBE_EVENT))
+                {
+                    return annotation;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return Whether code in the owner's package, but outside of its class hierarchy, can name the type
+         */
+        private boolean isAccessible(TypeElement type)
+        {
+            for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement())
+            {
+                NestingKind nesting = ((TypeElement)e).getNestingKind();
+                if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS || !isAccessible(e.getModifiers(), e))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isAccessible(Set<Modifier> modifiers, Element element)
+        {
+            if (modifiers.contains(Modifier.PRIVATE))
+            {
+                return false;
+            }
+            return modifiers.contains(Modifier.PUBLIC) || elements.getPackageOf(element).equals(pkg);
+        }
+
+        private void writeSource(PrintWriter out, String simpleName, List<Subscriber> instance, List<Subscriber> statics)
+        {
+            String ownerType = types.erasure(owner.asType()).toString();
+            List<Subscriber> all = new ArrayList<>(instance);
+            all.addAll(statics);
+
+            if (!pkg.isUnnamed())
+            {
+                out.println("package " + pkg.getQualifiedName() + ";");
+                out.println();
+            }
+            out.println("import " + API + ".EventPriority;");
+            out.println("import " + API + ".IEventListener;");
+            out.println("import " + API + ".ISubscriberIndex;");
+            out.println("import " + API + ".IndexedSubscriber;");
+            out.println();
+            out.println("/**");
+            out.println(" * Subscriber index for {@link " + ownerType + "}, generated by " + SubscriberIndexProcessor.class.getName() + ".");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+            out.println("public final class " + simpleName + " implements ISubscriberIndex");
+            out.println("{");
+            writeTable(out, "INSTANCE", instance, 0);
+            writeTable(out, "STATIC", statics, instance.size());
+            out.println();
+            out.println("    @Override");
+            out.println("    public IndexedSubscriber[] getInstanceSubscribers()");
+            out.println("    {");
+            out.println("        return INSTANCE;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public IndexedSubscriber[] getStaticSubscribers()");
+            out.println("    {");
+            out.println("        return STATIC;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public IEventListener createListener(int id, Object target)");
+            out.println("    {");
+            out.println("        switch (id)");
+            out.println("        {");
+            for (int id = 0; id < all.size(); id++)
+            {
+                out.println("            case " + id + ": return new Invoker" + id + "(" + (all.get(id).isStatic ? "" : "(" + ownerType + ")target") + ");");
+            }
+            out.println("            default: throw new IllegalArgumentException(\"Unknown subscriber \" + id);");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    private static <T extends Throwable> T sneakyThrow(Throwable t) throws T");
+            out.println("    {");
+            out.println("        throw (T)t;");
+            out.println("    }");
+            for (int id = 0; id < all.size(); id++)
+            {
+                Subscriber subscriber = all.get(id);
+                String invoker = "Invoker" + id;
+                out.println();
+                out.println("    private static final class " + invoker + " implements IEventListener");
+                out.println("    {");
+                if (!subscriber.isStatic)
+                {
+                    out.println("        private final " + ownerType + " instance;");
+                    out.println();
+                    out.println("        " + invoker + "(" + ownerType + " instance)");
+                    out.println("        {");
+                    out.println("            this.instance = instance;");
+                    out.println("        }");
+                    out.println();
+                }
+                String call = (subscriber.isStatic ? ownerType : "instance") + "." + subscriber.method.getSimpleName() + "((" + subscriber.eventType + ")event);";
+                out.println("        @Override");
+                out.println("        public void invoke(" + EVENT + " event)");
+                out.println("        {");
+                if (subscriber.method.getThrownTypes().isEmpty())
+                {
+                    out.println("            " + call);
+                }
+                else
+                {
+                    // Checked exceptions are passed on as is, like from the ASM and reflective listeners
+                    out.println("            try");
+                    out.println("            {");
+                    out.println("                " + call);
+                    out.println("            }");
+                    out.println("            catch (Throwable t)");
+                    out.println("            {");
+                    out.println("                throw " + simpleName + ".<RuntimeException>sneakyThrow(t);");
+                    out.println("            }");
+                }
+                out.println("        }");
+                out.println("    }");
+            }
+            out.println("}");
+            out.flush();
+        }
+
+        private void writeTable(PrintWriter out, String name, List<Subscriber> subscribers, int firstId)
+        {
+            out.println("    private static final IndexedSubscriber[] " + name + " = {");
+            for (int i = 0; i < subscribers.size(); i++)
+            {
+                Subscriber subscriber = subscribers.get(i);
+                out.println("        new IndexedSubscriber(" + (firstId + i) + ", " + subscriber.eventType + ".class, EventPriority." + subscriber.priority + ", " +
+                        subscriber.receiveCanceled + ", " + subscriber.blocking + ", " + subscriber.filter + ", \"" + subscriber.method.getSimpleName() + "\"),");
+            }
+            out.println("    };");
+        }
+
+        private void skip(String reason, Element element)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "No subscriber index generated for " + binaryName + ", " + reason + ". It will be registered through reflection.", element);
+        }
+
+        private void error(String message, Element element)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncPostTest {
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    @Test
+    void postRunsOnExecutorInOrder() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "async-post"));
+        try {
+            final IEventBus bus = BusBuilder.builder().setExecutor(executor).build();
+            bus.addListener(EventPriority.LOW, false, AsyncEvent.class, e -> calls.add("low:" + Thread.currentThread().getName()));
+            bus.addListener(EventPriority.HIGH, false, AsyncEvent.class, e -> calls.add("high:" + Thread.currentThread().getName()));
+            bus.addListener(EventPriority.NORMAL, false, AsyncEvent.class, e -> e.setCanceled(true));
+
+            assertTrue(bus.postAsync(new AsyncEvent()).get(5, TimeUnit.SECONDS));
+            assertIterableEquals(Arrays.asList("high:async-post"), calls);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void listenerFailureCompletesExceptionally() {
+        final IEventBus bus = BusBuilder.builder().setExceptionHandler((b, event, listeners, index, throwable) -> {}).build();
+        bus.addListener(EventPriority.NORMAL, false, AsyncEvent.class, e -> { throw new IllegalStateException("BARF"); });
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bus.postAsync(new AsyncEvent()).get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause().getCause() instanceof IllegalStateException);
+    }
+
+    // faked asm processing for easy testing
+    public static class AsyncEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.eventbus.test.ConcurrentRegistrationTest.ChildEvent;
+import net.minecraftforge.eventbus.test.ConcurrentRegistrationTest.ParentEvent;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class BatchRegistrationTest {
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void registerAllKeepsOrder() {
+        final IEventBus bus = IEventBus.create();
+        bus.registerAll(Arrays.asList(new Subscriber("first"), new Subscriber("second"), new Subscriber("third")));
+        bus.post(new ChildEvent());
+        assertIterableEquals(Arrays.asList("first", "second", "third"), calls);
+    }
+
+    @Test
+    void batchDefersInvalidation() {
+        final IEventBus bus = IEventBus.create();
+        bus.addListener(EventPriority.NORMAL, false, ChildEvent.class, e -> calls.add("before"));
+        bus.post(new ChildEvent());
+        bus.batch(() -> {
+            bus.addListener(EventPriority.HIGH, false, ParentEvent.class, e -> calls.add("parent"));
+            bus.batch(() -> bus.addListener(EventPriority.LOW, false, ChildEvent.class, e -> calls.add("child")));
+            // the cached listeners stay in place until the batch is done
+            bus.post(new ChildEvent());
+        });
+        bus.post(new ChildEvent());
+        assertIterableEquals(Arrays.asList("before", "before", "parent", "before", "child"), calls);
+    }
+
+    @Test
+    void unregisterInBatch() {
+        final IEventBus bus = IEventBus.create();
+        final Subscriber first = new Subscriber("first");
+        final Subscriber second = new Subscriber("second");
+        bus.registerAll(Arrays.asList(first, second));
+        bus.batch(() -> {
+            bus.unregister(first);
+            bus.unregister(second);
+        });
+        bus.post(new ChildEvent());
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void registerAllNewClasses() throws Exception {
+        // enough distinct subscriber methods for the wrappers to be generated in parallel
+        final GeneratedLoader loader = new GeneratedLoader();
+        final List<Object> targets = new ArrayList<>();
+        for (int x = 0; x < 200; x++) {
+            targets.add(loader.create("net/minecraftforge/eventbus/test/generated/Subscriber" + x));
+        }
+        final IEventBus bus = IEventBus.create();
+        bus.registerAll(targets);
+        bus.post(new ChildEvent());
+        assertEquals(200, GENERATED_CALLS.get());
+    }
+
+    public static final AtomicInteger GENERATED_CALLS = new AtomicInteger();
+
+    /**
+     * Defines classes with a single subscriber method that counts its calls in {@link #GENERATED_CALLS}.
+     */
+    private static class GeneratedLoader extends ClassLoader {
+        GeneratedLoader() {
+            super(BatchRegistrationTest.class.getClassLoader());
+        }
+
+        Object create(String name) throws ReflectiveOperationException {
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", null);
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            mv = cw.visitMethod(ACC_PUBLIC, "onEvent", "(" + Type.getDescriptor(ChildEvent.class) + ")V", null, null);
+            mv.visitAnnotation(Type.getDescriptor(SubscribeEvent.class), true).visitEnd();
+            mv.visitCode();
+            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(BatchRegistrationTest.class), "GENERATED_CALLS", Type.getDescriptor(AtomicInteger.class));
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(AtomicInteger.class), "incrementAndGet", "()I", false);
+            mv.visitInsn(POP);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+            cw.visitEnd();
+
+            byte[] data = cw.toByteArray();
+            return defineClass(name.replace('/', '.'), data, 0, data.length).getConstructor().newInstance();
+        }
+    }
+
+    public class Subscriber {
+        private final String name;
+        Subscriber(String name) {
+            this.name = name;
+        }
+
+        @SubscribeEvent
+        public void onEvent(ChildEvent event) {
+            calls.add(name);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockingDispatchTest {
+    private static final int BLOCKING = 4;
+    private final CountDownLatch allStarted = new CountDownLatch(BLOCKING);
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    @Test
+    void blockingListenersRunConcurrentlyWithinPhase() {
+        final IEventBus bus = BusBuilder.builder().setBlockingDispatch(true).build();
+        for (int i = 0; i < BLOCKING; i++) {
+            bus.register(new BlockingSubscriber());
+        }
+        bus.addListener(EventPriority.LOW, false, BlockingEvent.class, e -> calls.add("low"));
+        bus.post(new BlockingEvent());
+
+        assertEquals(BLOCKING + 1, calls.size());
+        assertEquals("low", calls.get(BLOCKING), "Blocking listeners are joined before the next phase");
+        assertFalse(calls.contains("timeout"), "Blocking listeners of one phase run at the same time");
+        assertFalse(calls.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void blockingIsIgnoredByDefault() {
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.register(new BlockingSubscriber());
+        bus.post(new BlockingEvent());
+        assertEquals("timeout", calls.get(0));
+    }
+
+    public class BlockingSubscriber {
+        @SubscribeEvent(blocking = true)
+        public void onEvent(BlockingEvent event) throws InterruptedException {
+            allStarted.countDown();
+            calls.add(allStarted.await(5, TimeUnit.SECONDS) ? Thread.currentThread().getName() : "timeout");
+        }
+    }
+
+    // faked asm processing for easy testing
+    public static class BlockingEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CancelSkipTest {
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void canceledEventsOnlyReachReceivingListeners() {
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.HIGHEST, false, CancellableEvent.class, e -> e.setCanceled(true));
+        bus.addListener(EventPriority.HIGH, false, CancellableEvent.class, e -> calls.add("skipped"));
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> calls.add("skipped"));
+        bus.addListener(EventPriority.LOW, true, CancellableEvent.class, e -> {
+            calls.add("received:" + e.getPhase());
+            e.setCanceled(false);
+        });
+        bus.addListener(EventPriority.LOWEST, false, CancellableEvent.class, e -> calls.add("uncanceled:" + e.getPhase()));
+
+        assertFalse(bus.post(new CancellableEvent()));
+        assertEquals(Arrays.asList("received:LOW", "uncanceled:LOWEST"), calls);
+    }
+
+    @Test
+    void failureReportsTheListenerIndex() {
+        final int[] failed = new int[1];
+        final IEventBus bus = BusBuilder.builder().setExceptionHandler((b, event, listeners, index, throwable) -> failed[0] = index).build();
+        bus.addListener(EventPriority.HIGH, false, CancellableEvent.class, e -> e.setCanceled(true));
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> calls.add("skipped"));
+        bus.addListener(EventPriority.NORMAL, true, CancellableEvent.class, e -> {
+            throw new IllegalStateException("test");
+        });
+
+        assertThrows(RuntimeException.class, () -> bus.post(new CancellableEvent()));
+        assertEquals(4, failed[0], "Index counts the phase markers and the skipped listener");
+        assertTrue(calls.isEmpty());
+    }
+
+    // faked asm processing for easy testing
+    public static class CancellableEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledDispatchTest {
+    private final List<String> calls = new ArrayList<>();
+
+    private IEventBus compiledBus() {
+        return BusBuilder.builder().setCompiledDispatch(true).build();
+    }
+
+    @Test
+    void listenersRunInPriorityOrder() {
+        final IEventBus bus = compiledBus();
+        bus.addListener(EventPriority.LOW, false, CancellableEvent.class, e -> calls.add("low:" + e.getPhase()));
+        bus.addListener(EventPriority.HIGHEST, false, CancellableEvent.class, e -> calls.add("highest:" + e.getPhase()));
+        bus.register(new Subscriber());
+        assertFalse(bus.post(new CancellableEvent()));
+        assertIterableEquals(Arrays.asList("highest:HIGHEST", "asm:NORMAL", "low:LOW"), calls);
+    }
+
+    @Test
+    void cancelledEventsSkipListeners() {
+        final IEventBus bus = compiledBus();
+        bus.addListener(EventPriority.HIGH, false, CancellableEvent.class, e -> e.setCanceled(true));
+        bus.addListener(EventPriority.LOW, false, CancellableEvent.class, e -> calls.add("skipped"));
+        bus.addListener(EventPriority.LOWEST, true, CancellableEvent.class, e -> calls.add("received"));
+        assertTrue(bus.post(new CancellableEvent()));
+        assertIterableEquals(Arrays.asList("received"), calls);
+    }
+
+    @Test
+    void genericFilterIsApplied() {
+        final IEventBus bus = compiledBus();
+        bus.addGenericListener(String.class, EventPriority.NORMAL, false, valueEvent(), e -> calls.add("string"));
+        bus.addGenericListener(Integer.class, EventPriority.NORMAL, false, valueEvent(), e -> calls.add("integer"));
+        bus.post(new ValueEvent<>(String.class));
+        assertIterableEquals(Arrays.asList("string"), calls);
+    }
+
+    @Test
+    void dispatcherIsRegeneratedWhenListenersChange() {
+        final IEventBus bus = compiledBus();
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> calls.add("first"));
+        bus.post(new CancellableEvent());
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> calls.add("second"));
+        bus.post(new CancellableEvent());
+        assertIterableEquals(Arrays.asList("first", "first", "second"), calls);
+    }
+
+    @Test
+    void exceptionReportsFailingListener() {
+        final int[] failed = { -1 };
+        final IEventListener[][] seen = new IEventListener[1][];
+        final IEventBus bus = BusBuilder.builder().setCompiledDispatch(true).
+                setExceptionHandler((b, event, listeners, index, throwable) -> {
+                    failed[0] = index;
+                    seen[0] = listeners;
+                }).build();
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> calls.add("ok"));
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> { throw new IllegalStateException("BARF"); });
+        assertThrows(RuntimeException.class, () -> bus.post(new CancellableEvent()));
+        assertEquals(2, failed[0], "Index of the throwing listener, after the phase marker and first listener");
+        assertEquals("ok", calls.get(0));
+        assertSame(EventPriority.NORMAL, seen[0][0]);
+    }
+
+    @Test
+    void compilesWithoutContextClassLoader() throws Exception {
+        final IEventBus bus = compiledBus();
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> calls.add("posted"));
+        final Throwable[] failure = new Throwable[1];
+        // the first post compiles the dispatcher, on a thread whose context loader can't see the bus
+        final Thread thread = new Thread(() -> {
+            try {
+                bus.post(new CancellableEvent());
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        });
+        thread.setContextClassLoader(new ClassLoader(null) {});
+        thread.start();
+        thread.join();
+        assertNull(failure[0]);
+        assertIterableEquals(Arrays.asList("posted"), calls);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<ValueEvent<T>> valueEvent() {
+        return (Class<ValueEvent<T>>)(Class<?>)ValueEvent.class;
+    }
+
+    public class Subscriber {
+        @SubscribeEvent
+        public void onEvent(CancellableEvent event) {
+            calls.add("asm:" + event.getPhase());
+        }
+    }
+
+    // faked asm processing for easy testing
+    public static class CancellableEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+
+    public static class ValueEvent<T> extends GenericEvent<T> {
+        private static ListenerList LISTENER_LIST;
+        public ValueEvent() {
+            super(null);
+        }
+        public ValueEvent(Class<T> type) {
+            super(type);
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.EventListenerHelper;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentBusCreationTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 50;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createBusesWhileLoadingEvents() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int round = 0; round < ROUNDS; round++) {
+            // fresh copies of the event classes, so every round races on their first instances
+            final ClassLoader loader = new EventLoader();
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<ListenerList>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                // half of the threads look the list up for a registration before any event of the type exists
+                final boolean registerFirst = t % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    final Class<? extends Event> parent = (Class<? extends Event>) loader.loadClass(ParentEvent.class.getName());
+                    final Class<? extends Event> child = (Class<? extends Event>) loader.loadClass(ChildEvent.class.getName());
+                    final IEventBus bus = IEventBus.create();
+                    final AtomicInteger hits = new AtomicInteger();
+                    start.await();
+                    if (registerFirst)
+                        bus.addListener(EventPriority.NORMAL, false, (Class<Event>) child, e -> hits.incrementAndGet());
+                    final Event event = child.getConstructor().newInstance();
+                    if (!registerFirst)
+                        bus.addListener(EventPriority.NORMAL, false, (Class<Event>) parent, e -> hits.incrementAndGet());
+                    bus.post(event);
+                    assertEquals(1, hits.get(), "Listener is registered to the list the event uses");
+                    assertSame(EventListenerHelper.getListenerList(child), event.getListenerList());
+                    bus.shutdown();
+                    return event.getListenerList();
+                }));
+            }
+            start.countDown();
+            final ListenerList list = futures.get(0).get();
+            for (Future<ListenerList> future : futures) {
+                assertSame(list, future.get(), "Every thread sees the same list");
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Loads its own copy of the events below, everything else comes from the parent.
+     */
+    private static class EventLoader extends ClassLoader {
+        EventLoader() {
+            super(ConcurrentBusCreationTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(ParentEvent.class.getName()) && !name.equals(ChildEvent.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = in.read(buffer)) != -1; ) {
+                        out.write(buffer, 0, read);
+                    }
+                    return defineClass(name, out.toByteArray(), 0, out.size());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    // faked asm processing for easy testing, in the shape EventSubscriptionTransformer generates
+    public static class ParentEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = EventListenerHelper.setupListenerList(ParentEvent.class, super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class ChildEvent extends ParentEvent {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = EventListenerHelper.setupListenerList(ChildEvent.class, super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentRegistrationTest {
+    private static final int THREADS = 4;
+    private static final int LISTENERS = 500;
+
+    @Test
+    void registerWhilePosting() throws Exception {
+        final IEventBus bus = IEventBus.create();
+        final AtomicInteger hits = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        // the faked setup below isn't thread safe, create the listener lists before the threads race for them
+        new ChildEvent();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < LISTENERS; i++) {
+                    // alternate between the event and its parent so invalidation crosses the hierarchy
+                    if (i % 2 == 0)
+                        bus.addListener(EventPriority.values()[i % 5], false, ChildEvent.class, e -> hits.incrementAndGet());
+                    else
+                        bus.addListener(EventPriority.values()[i % 5], false, ParentEvent.class, e -> hits.incrementAndGet());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        while (futures.stream().anyMatch(f -> !f.isDone())) {
+            bus.post(new ChildEvent());
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        hits.set(0);
+        bus.post(new ChildEvent());
+        assertEquals(THREADS * LISTENERS, hits.get(), "Every listener registered from a worker thread is visible");
+    }
+
+    @Test
+    void unregisterRemovesListenersAddedConcurrently() throws Exception {
+        final IEventBus bus = IEventBus.create();
+        final AtomicInteger hits = new AtomicInteger();
+        final Consumer<ChildEvent> consumer = e -> hits.incrementAndGet();
+        // the faked setup below isn't thread safe, create the listener lists up front
+        new ChildEvent();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                // every listener is recorded under the same target
+                for (int i = 0; i < LISTENERS; i++)
+                    bus.addListener(EventPriority.NORMAL, false, ChildEvent.class, consumer);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        bus.post(new ChildEvent());
+        assertEquals(THREADS * LISTENERS, hits.get());
+        hits.set(0);
+        bus.unregister(consumer);
+        bus.post(new ChildEvent());
+        assertEquals(0, hits.get(), "No registration of the target is lost");
+    }
+
+    // faked asm processing for easy testing
+    public static class ParentEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class ChildEvent extends ParentEvent {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
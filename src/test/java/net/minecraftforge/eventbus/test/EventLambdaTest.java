@@ -6,9 +6,11 @@ import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.IEventBus;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class EventLambdaTest {
     boolean hit;
@@ -57,6 +59,31 @@ public class EventLambdaTest {
             }
         });
     }
+    @Test
+    void lambdaPostDoesNotAllocate() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation tracking unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        final IEventBus bus = IEventBus.create();
+        bus.addListener(EventPriority.NORMAL, false, CancellableEvent.class, e -> hit = true);
+        bus.addListener(EventPriority.LOW, true, CancellableEvent.class, e -> hit = true);
+        // events can only be posted once, so create them all up front
+        final CancellableEvent[] events = new CancellableEvent[10000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new CancellableEvent();
+        }
+        // first post builds the listener cache
+        bus.post(new CancellableEvent());
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (CancellableEvent event : events) {
+            bus.post(event);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        // allow for the bookkeeping of the allocation counter itself, but not a byte per post
+        assertTrue(allocated < 10000, "Posting to lambda listeners allocated " + allocated + " bytes");
+    }
+
     // faked asm processing for easy testing
     public static class SubEvent extends Event {
         private static ListenerList LISTENER_LIST;
@@ -0,0 +1,91 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.EventListenerHelper;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventListenerHelperTest {
+    private static int created = 0;
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void registrationDoesNotCreateEvents() {
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.NORMAL, false, ParentEvent.class, e -> calls.add("parent:" + e.value));
+        bus.addListener(EventPriority.NORMAL, false, ChildEvent.class, e -> calls.add("child:" + e.value));
+        assertEquals(0, created);
+
+        bus.post(new ChildEvent("a"));
+        bus.post(new ParentEvent("b"));
+        assertIterableEquals(Arrays.asList("child:a", "parent:a", "parent:b"), calls);
+        assertSame(new ChildEvent("c").getListenerList(), EventListenerHelper.getListenerList(ChildEvent.class));
+    }
+
+    @Test
+    void eventsWithoutOwnListShareTheParentList() {
+        assertSame(EventListenerHelper.getListenerList(ParentEvent.class), EventListenerHelper.getListenerList(PlainChildEvent.class));
+        assertSame(new Event().getListenerList(), EventListenerHelper.getListenerList(GenericEvent.class));
+    }
+
+    @Test
+    void nonEventsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EventListenerHelper.getListenerList(String.class));
+        assertThrows(IllegalArgumentException.class, () -> EventListenerHelper.getListenerList(Runnable.class));
+    }
+
+    // faked asm processing for easy testing
+    public static class ParentEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        final String value;
+        public ParentEvent(String value) {
+            this.value = value;
+            created++;
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class ChildEvent extends ParentEvent {
+        private static ListenerList LISTENER_LIST;
+        public ChildEvent(String value) {
+            super(value);
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class PlainChildEvent extends ParentEvent {
+        public PlainChildEvent() {
+            super("plain");
+        }
+    }
+}
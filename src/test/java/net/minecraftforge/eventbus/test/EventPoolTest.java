@@ -0,0 +1,81 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventPoolTest {
+    @Test
+    void releasedEventsAreResetAndReused() {
+        final AtomicInteger calls = new AtomicInteger();
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.NORMAL, false, PooledEvent.class, e -> {
+            calls.incrementAndGet();
+            e.setResult(Event.Result.ALLOW);
+            e.setCanceled(true);
+        });
+
+        final PooledEvent event = bus.acquire(PooledEvent.class);
+        assertTrue(bus.post(event));
+        bus.release(event);
+
+        final PooledEvent reused = bus.acquire(PooledEvent.class);
+        assertSame(event, reused);
+        assertFalse(reused.isCanceled());
+        assertEquals(Event.Result.DEFAULT, reused.getResult());
+        assertNull(reused.getPhase());
+        assertTrue(bus.post(reused), "A reset event can be posted again");
+        assertEquals(2, calls.get());
+        assertNotSame(reused, bus.acquire(PooledEvent.class));
+    }
+
+    @Test
+    void releasingTwiceIsRejected() {
+        final IEventBus bus = BusBuilder.builder().build();
+        final PooledEvent event = bus.acquire(PooledEvent.class);
+        bus.release(event);
+        assertThrows(IllegalStateException.class, () -> bus.release(event));
+
+        final PooledEvent reused = bus.acquire(PooledEvent.class);
+        assertSame(event, reused);
+        assertNotSame(reused, bus.acquire(PooledEvent.class), "The event is only handed out once");
+    }
+
+    @Test
+    void poolsAreSharedBetweenThreads() throws Exception {
+        final IEventBus bus = BusBuilder.builder().build();
+        final PooledEvent event = bus.acquire(PooledEvent.class);
+        final Thread thread = new Thread(() -> bus.release(event));
+        thread.start();
+        thread.join();
+        // a per thread pool would keep the event on the finished thread
+        assertSame(event, bus.acquire(PooledEvent.class));
+    }
+
+    // faked asm processing for easy testing
+    public static class PooledEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenericIndexTest {
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void onlyMatchingListenersAreCalled() {
+        checkOrder(BusBuilder.builder().build());
+    }
+
+    @Test
+    void compiledDispatchUsesTheIndex() {
+        checkOrder(BusBuilder.builder().setCompiledDispatch(true).build());
+    }
+
+    private void checkOrder(IEventBus bus) {
+        bus.addGenericListener(String.class, EventPriority.HIGH, false, valueEvent(), e -> calls.add("string:" + e.getPhase()));
+        bus.addGenericListener(Integer.class, EventPriority.NORMAL, false, valueEvent(), e -> calls.add("integer"));
+        bus.addListener(EventPriority.LOW, false, ValueEvent.class, e -> calls.add("any:" + e.getPhase()));
+        bus.addGenericListener(String.class, EventPriority.LOWEST, false, valueEvent(), e -> calls.add("string:" + e.getPhase()));
+
+        bus.post(new ValueEvent<>(String.class));
+        assertEquals(Arrays.asList("string:HIGH", "any:LOW", "string:LOWEST"), calls);
+        calls.clear();
+        bus.post(new ValueEvent<>(Integer.class));
+        assertEquals(Arrays.asList("integer", "any:LOW"), calls);
+        calls.clear();
+        bus.post(new ValueEvent<>(Long.class));
+        assertEquals(Arrays.asList("any:LOW"), calls);
+    }
+
+    @Test
+    void registrationUpdatesTheIndex() {
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.post(new ValueEvent<>(String.class));
+        bus.addGenericListener(String.class, EventPriority.NORMAL, false, valueEvent(), e -> calls.add("string"));
+        bus.post(new ValueEvent<>(String.class));
+        assertEquals(Arrays.asList("string"), calls);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<ValueEvent<T>> valueEvent() {
+        return (Class<ValueEvent<T>>)(Class<?>)ValueEvent.class;
+    }
+
+    // faked asm processing for easy testing
+    public static class ValueEvent<T> extends GenericEvent<T> {
+        private static ListenerList LISTENER_LIST;
+        public ValueEvent() {
+            super(null);
+        }
+        public ValueEvent(Class<T> type) {
+            super(type);
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
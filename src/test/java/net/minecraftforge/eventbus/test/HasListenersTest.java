@@ -0,0 +1,90 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HasListenersTest {
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    void registrationUpdatesHasListeners() {
+        final IEventBus bus = BusBuilder.builder().build();
+        assertFalse(bus.hasListeners(ChildEvent.class));
+
+        final Object subscriber = new Subscriber();
+        bus.register(subscriber);
+        assertTrue(bus.hasListeners(ParentEvent.class));
+        assertTrue(bus.hasListeners(ChildEvent.class), "Parent listeners are also called for children");
+        assertFalse(BusBuilder.builder().build().hasListeners(ParentEvent.class), "Other buses are not affected");
+
+        bus.unregister(subscriber);
+        assertFalse(bus.hasListeners(ChildEvent.class));
+    }
+
+    @Test
+    void supplierIsOnlyCalledWithListeners() {
+        final IEventBus bus = BusBuilder.builder().build();
+        assertFalse(bus.post(ChildEvent.class, () -> new ChildEvent(created)));
+        assertEquals(0, created.get());
+
+        bus.addListener(EventPriority.NORMAL, false, ChildEvent.class, e -> e.setCanceled(true));
+        assertTrue(bus.post(ChildEvent.class, () -> new ChildEvent(created)));
+        assertEquals(1, created.get());
+    }
+
+    public static class Subscriber {
+        @SubscribeEvent
+        public void onEvent(ParentEvent event) {
+        }
+    }
+
+    // faked asm processing for easy testing
+    public static class ParentEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+
+    public static class ChildEvent extends ParentEvent {
+        private static ListenerList LISTENER_LIST;
+        public ChildEvent() {
+        }
+        public ChildEvent(AtomicInteger created) {
+            created.incrementAndGet();
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.minecraftforge.eventbus.test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrEventsTest {
+    private static final String POSTED = "net.minecraftforge.eventbus.EventPosted";
+    private static final String INVOKED = "net.minecraftforge.eventbus.ListenerInvoked";
+    private static final String REBUILT = "net.minecraftforge.eventbus.ListenerListRebuilt";
+
+    @Test
+    void postsAreRecorded() throws Exception {
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> e.setCanceled(true));
+
+        final Path file = Files.createTempFile("eventbus", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(POSTED).withThreshold(java.time.Duration.ZERO);
+            recording.enable(INVOKED).withThreshold(java.time.Duration.ZERO);
+            recording.enable(REBUILT);
+            recording.start();
+            assertTrue(bus.post(new TestEvent()));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        final RecordedEvent posted = events.stream().filter(e -> e.getEventType().getName().equals(POSTED)).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(TestEvent.class.getName(), posted.getClass("eventType").getName());
+        assertTrue(posted.getBoolean("canceled"));
+        final RecordedEvent invoked = events.stream().filter(e -> e.getEventType().getName().equals(INVOKED)).findFirst().orElseThrow(AssertionError::new);
+        assertTrue(invoked.getString("listener").startsWith("Consumer: "));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals(REBUILT)), "The first post builds the listener list");
+    }
+
+    @Test
+    void unrelatedRecordingKeepsFastPath() {
+        final IEventBus bus = BusBuilder.builder().build();
+        final List<Boolean> recorded = new ArrayList<>();
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> recorded.add(
+                Arrays.stream(new Throwable().getStackTrace()).anyMatch(frame -> frame.getMethodName().equals("postRecorded"))));
+
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ThreadSleep");
+            recording.start();
+            bus.post(new TestEvent());
+            recording.enable(POSTED);
+            bus.post(new TestEvent());
+            recording.stop();
+        }
+        assertIterableEquals(Arrays.asList(false, true), recorded, "Only a recording of the bus events takes the recording path");
+    }
+
+    // faked asm processing for easy testing
+    public static class TestEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.api.*;
+import net.minecraftforge.eventbus.test.CompiledDispatchTest.CancellableEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LambdaMetafactoryHandlerTest {
+    private static final List<String> calls = new ArrayList<>();
+
+    private IEventBus lambdaBus() {
+        calls.clear();
+        return BusBuilder.builder().setHandlerFactory(HandlerFactory.LAMBDA_METAFACTORY).build();
+    }
+
+    @Test
+    void instanceAndStaticHandlers() {
+        final IEventBus bus = lambdaBus();
+        bus.register(new Subscriber("instance"));
+        bus.register(StaticSubscriber.class);
+        bus.post(new CancellableEvent());
+        assertIterableEquals(Arrays.asList("static", "instance"), calls);
+    }
+
+    @Test
+    void nonPublicHandlers() {
+        final IEventBus bus = lambdaBus();
+        bus.register(new HiddenSubscriber());
+        bus.post(new CancellableEvent());
+        assertIterableEquals(Arrays.asList("hidden"), calls);
+    }
+
+    @Test
+    void cancelledEventsRespectReceiveCanceled() {
+        final IEventBus bus = lambdaBus();
+        bus.addListener(EventPriority.HIGHEST, false, CancellableEvent.class, e -> e.setCanceled(true));
+        bus.register(new Subscriber("skipped"));
+        bus.register(new ReceivingSubscriber());
+        assertTrue(bus.post(new CancellableEvent()));
+        assertIterableEquals(Arrays.asList("received"), calls);
+    }
+
+    @Test
+    void unregisterRemovesHandler() {
+        final IEventBus bus = lambdaBus();
+        final Subscriber subscriber = new Subscriber("instance");
+        bus.register(subscriber);
+        bus.unregister(subscriber);
+        bus.post(new CancellableEvent());
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void unreachableClassesFallBackToAsm() throws Exception {
+        // a class of another loader is in another unnamed module, which a private lookup can't fully reach from Java 14 on
+        final ClassLoader loader = new WrapperCacheTest.SubscriberLoader();
+        final Class<?> type = loader.loadClass(WrapperCacheSubscriber.class.getName());
+        final Object target = type.getConstructor().newInstance();
+        final IEventBus bus = lambdaBus();
+        bus.register(target);
+        bus.post(new WrapperCacheTest.TestEvent());
+        assertEquals(1, type.getField("hits").getInt(target));
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("net.minecraftforge.eventbus.test.EventBus$$Lookup", false, loader),
+                "Nothing is defined in the subscriber's package");
+    }
+
+    public static class Subscriber {
+        private final String name;
+        Subscriber(String name) {
+            this.name = name;
+        }
+
+        @SubscribeEvent
+        public void onEvent(CancellableEvent event) {
+            calls.add(name);
+        }
+    }
+
+    public static class ReceivingSubscriber {
+        @SubscribeEvent(receiveCanceled = true)
+        public void onEvent(CancellableEvent event) {
+            calls.add("received");
+        }
+    }
+
+    public static class StaticSubscriber {
+        @SubscribeEvent(priority = EventPriority.HIGH)
+        public static void onEvent(CancellableEvent event) {
+            calls.add("static");
+        }
+    }
+
+    static class HiddenSubscriber {
+        @SubscribeEvent
+        public void onEvent(CancellableEvent event) {
+            calls.add("hidden");
+        }
+    }
+}
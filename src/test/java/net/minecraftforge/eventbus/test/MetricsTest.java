@@ -0,0 +1,194 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    @Test
+    void metricsAreOffByDefault() {
+        assertFalse(BusBuilder.builder().build().getMetrics().isPresent());
+    }
+
+    @Test
+    void postsAndListenerCallsAreCounted() {
+        final IEventBus bus = BusBuilder.builder().setMetrics(true).setCompiledDispatch(true).build();
+        bus.addListener(EventPriority.HIGH, false, TestEvent.class, e -> {});
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> {
+            if (e.fail)
+                throw new IllegalStateException("test");
+        });
+        bus.post(new TestEvent());
+        assertThrows(RuntimeException.class, () -> bus.post(new TestEvent(true)));
+        bus.postAll(new Event[] { new TestEvent(), new OtherEvent() });
+
+        final IEventMetrics metrics = bus.getMetrics().orElseThrow(AssertionError::new);
+        assertEquals(3, metrics.getPostCount(TestEvent.class));
+        assertEquals(1, metrics.getPostCount(OtherEvent.class), "Posts without listeners are counted too");
+
+        final List<ListenerMetrics> listeners = metrics.getListenerMetrics();
+        assertEquals(2, listeners.size());
+        for (ListenerMetrics listener : listeners) {
+            assertEquals(3, listener.getInvocations());
+            assertTrue(listener.getMaxNanos() <= listener.getTotalNanos());
+        }
+        assertEquals(1, listeners.stream().mapToLong(ListenerMetrics::getExceptions).sum());
+
+        metrics.reset();
+        assertEquals(0, metrics.getPostCount(TestEvent.class));
+        assertTrue(metrics.getListenerMetrics().isEmpty());
+    }
+
+    @Test
+    void onlyListenersThatRunAreCounted() {
+        final List<BusBuilder> builders = Arrays.asList(BusBuilder.builder(), BusBuilder.builder().setCompiledDispatch(true),
+                BusBuilder.builder().setBlockingDispatch(true), BusBuilder.builder().setBatchOrder(BatchOrder.LISTENER_MAJOR));
+        for (BusBuilder builder : builders) {
+            final IEventBus bus = builder.setMetrics(true).build();
+            bus.addListener(EventPriority.HIGH, false, CancelableEvent.class, e -> e.setCanceled(true));
+            bus.addListener(EventPriority.NORMAL, false, CancelableEvent.class, e -> fail("Canceled events skip this listener"));
+            bus.addListener(EventPriority.LOW, true, CancelableEvent.class, e -> {});
+            bus.postAll(new Event[] { new CancelableEvent(), new CancelableEvent() });
+
+            final List<ListenerMetrics> listeners = bus.getMetrics().orElseThrow(AssertionError::new).getListenerMetrics();
+            assertEquals(2, listeners.size(), "The skipped listener isn't counted");
+            for (ListenerMetrics listener : listeners) {
+                assertEquals(2, listener.getInvocations());
+                assertEquals(0, listener.getExceptions());
+            }
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    void parallelPostsAreTimedPerListener() {
+        final IEventBus bus = BusBuilder.builder().setMetrics(true).build();
+        bus.addListener(EventPriority.NORMAL, false, ParallelPostTest.ParallelEvent.class, e -> {});
+        bus.addListener(EventPriority.NORMAL, false, ParallelPostTest.ParallelEvent.class, e -> {});
+        bus.post(new ParallelPostTest.ParallelEvent());
+
+        final List<ListenerMetrics> listeners = bus.getMetrics().orElseThrow(AssertionError::new).getListenerMetrics();
+        assertEquals(2, listeners.size());
+        for (ListenerMetrics listener : listeners) {
+            assertEquals(1, listener.getInvocations());
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    void unregisterDropsListenerMetrics() {
+        final IEventBus bus = BusBuilder.builder().setMetrics(true).build();
+        final Consumer<TestEvent> kept = e -> {};
+        final Consumer<TestEvent> removed = e -> {};
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, kept);
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, removed);
+        bus.post(new TestEvent());
+
+        final IEventMetrics metrics = bus.getMetrics().orElseThrow(AssertionError::new);
+        assertEquals(2, metrics.getListenerMetrics().size());
+        bus.unregister(removed);
+        final List<ListenerMetrics> listeners = metrics.getListenerMetrics();
+        assertEquals(1, listeners.size(), "Stats of unregistered listeners would keep their targets reachable");
+        assertTrue(listeners.get(0).getListener().contains(kept.toString()));
+        bus.shutdown();
+        assertTrue(metrics.getListenerMetrics().isEmpty());
+    }
+
+    @Test
+    void supplierPostsAreCountedOnlyWhenCreated() {
+        final IEventBus bus = BusBuilder.builder().setMetrics(true).build();
+        final IEventMetrics metrics = bus.getMetrics().orElseThrow(AssertionError::new);
+        bus.post(OtherEvent.class, OtherEvent::new);
+        assertEquals(0, metrics.getPostCount(OtherEvent.class), "Nothing was posted without listeners");
+        bus.addListener(EventPriority.NORMAL, false, OtherEvent.class, e -> {});
+        bus.post(OtherEvent.class, OtherEvent::new);
+        assertEquals(1, metrics.getPostCount(OtherEvent.class));
+    }
+
+    @Test
+    void metricsArePublishedOverJmx() throws Exception {
+        final IEventBus bus = BusBuilder.builder().setMetricsMBean("MetricsTest").build();
+        bus.post(new OtherEvent());
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("net.minecraftforge.eventbus:type=EventBus,name=\"MetricsTest\"");
+        assertTrue(server.isRegistered(name));
+        assertNotNull(server.getAttribute(name, "PostCounts"));
+        assertNotNull(server.getAttribute(name, "ListenerMetrics"));
+        bus.shutdown();
+        assertFalse(server.isRegistered(name), "Shutting the bus down removes its MBean");
+    }
+
+    // faked asm processing for easy testing
+    public static class TestEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        private final boolean fail;
+        public TestEvent() {
+            this(false);
+        }
+        public TestEvent(boolean fail) {
+            this.fail = fail;
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+
+    public static class CancelableEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+
+    public static class OtherEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
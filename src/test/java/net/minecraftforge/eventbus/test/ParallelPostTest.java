@@ -0,0 +1,94 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelPostTest {
+    private static final int LISTENERS = 40;
+
+    @Test
+    void phasesRunAfterEachOther() {
+        final AtomicInteger normal = new AtomicInteger();
+        final int[] seenByLow = { -1 };
+        final IEventBus bus = BusBuilder.builder().build();
+        for (int i = 0; i < LISTENERS; i++) {
+            bus.addListener(EventPriority.NORMAL, false, ParallelEvent.class, e -> normal.incrementAndGet());
+        }
+        bus.addListener(EventPriority.LOW, false, ParallelEvent.class, e -> seenByLow[0] = normal.get());
+        assertFalse(bus.post(new ParallelEvent()));
+        assertEquals(LISTENERS, seenByLow[0]);
+    }
+
+    @Test
+    void cancellationIsCheckedBetweenPhases() {
+        final AtomicInteger normal = new AtomicInteger();
+        final AtomicInteger low = new AtomicInteger();
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.NORMAL, false, ParallelEvent.class, e -> e.setCanceled(true));
+        for (int i = 0; i < LISTENERS; i++) {
+            bus.addListener(EventPriority.NORMAL, false, ParallelEvent.class, e -> normal.incrementAndGet());
+        }
+        bus.addListener(EventPriority.LOW, false, ParallelEvent.class, e -> low.incrementAndGet());
+        bus.addListener(EventPriority.LOWEST, true, ParallelEvent.class, e -> low.incrementAndGet());
+        assertTrue(bus.post(new ParallelEvent()));
+        assertEquals(LISTENERS, normal.get(), "Listeners of the cancelling phase all run");
+        assertEquals(1, low.get(), "Only receiveCanceled listeners of later phases run");
+    }
+
+    @Test
+    void failureReportsListenerIndex() {
+        final int[] failed = { -1 };
+        final IEventBus bus = BusBuilder.builder().setExceptionHandler((b, event, listeners, index, throwable) -> failed[0] = index).build();
+        bus.addListener(EventPriority.NORMAL, false, ParallelEvent.class, e -> {});
+        bus.addListener(EventPriority.NORMAL, false, ParallelEvent.class, e -> { throw new IllegalStateException("BARF"); });
+        assertThrows(RuntimeException.class, () -> bus.post(new ParallelEvent()));
+        assertEquals(2, failed[0], "Index of the throwing listener, after the phase marker and first listener");
+    }
+
+    @Test
+    void phasesRunOnBusPool() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final Queue<ForkJoinPool> pools = new ConcurrentLinkedQueue<>();
+        final IEventBus bus = BusBuilder.builder().setExecutor(pool).build();
+        for (int i = 0; i < LISTENERS; i++) {
+            bus.addListener(EventPriority.NORMAL, false, ParallelEvent.class, e -> pools.add(ForkJoinTask.getPool()));
+        }
+        bus.post(new ParallelEvent());
+        pool.shutdown();
+        assertEquals(LISTENERS, pools.size());
+        assertTrue(pools.stream().allMatch(p -> p == pool), "Listeners run on the pool the bus was built with");
+    }
+
+    // faked asm processing for easy testing
+    @Parallel
+    public static class ParallelEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+}
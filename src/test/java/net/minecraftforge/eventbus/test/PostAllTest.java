@@ -0,0 +1,85 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostAllTest {
+    private final List<String> calls = new ArrayList<>();
+
+    private IEventBus bus(BatchOrder order) {
+        final IEventBus bus = BusBuilder.builder().setBatchOrder(order).build();
+        bus.addListener(EventPriority.HIGH, false, BatchEvent.class, e -> {
+            calls.add("high:" + e.id);
+            e.setCanceled(e.id % 2 == 1);
+        });
+        bus.addListener(EventPriority.LOW, false, BatchEvent.class, e -> calls.add("low:" + e.id));
+        bus.addListener(EventPriority.NORMAL, false, OtherEvent.class, e -> calls.add("other"));
+        return bus;
+    }
+
+    @Test
+    void eventMajorPostsEventsOneAfterAnother() {
+        final BitSet cancelled = bus(BatchOrder.EVENT_MAJOR).postAll(Arrays.asList(new BatchEvent(0), new BatchEvent(1), new OtherEvent(), new BatchEvent(2)));
+        assertIterableEquals(Arrays.asList("high:0", "low:0", "high:1", "other", "high:2", "low:2"), calls);
+        assertEquals(BitSet.valueOf(new long[] { 0b10 }), cancelled);
+    }
+
+    @Test
+    void listenerMajorCallsEachListenerForAllEvents() {
+        final boolean[] cancelled = bus(BatchOrder.LISTENER_MAJOR).postAll(new Event[] { new BatchEvent(0), new BatchEvent(1), new BatchEvent(2) });
+        assertIterableEquals(Arrays.asList("high:0", "high:1", "high:2", "low:0", "low:2"), calls);
+        assertArrayEquals(new boolean[] { false, true, false }, cancelled);
+    }
+
+    // faked asm processing for easy testing
+    public static class BatchEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        final int id;
+        public BatchEvent(int id) {
+            this.id = id;
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+
+    public static class OtherEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.EventBus;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShutdownTest {
+    @Test
+    void shutdownDropsListeners() {
+        final AtomicInteger calls = new AtomicInteger();
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> calls.incrementAndGet());
+        bus.post(new TestEvent());
+        assertEquals(1, calls.get());
+
+        bus.shutdown();
+        assertFalse(bus.hasListeners(TestEvent.class));
+        bus.post(new TestEvent());
+        assertEquals(1, calls.get(), "No listener is called after shutdown");
+        assertThrows(IllegalStateException.class, () -> bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> {}));
+    }
+
+    @Test
+    void newBusesDontSeeListenersOfShutDownOnes() {
+        final AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            final IEventBus bus = BusBuilder.builder().build();
+            bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> calls.incrementAndGet());
+            bus.post(new TestEvent());
+            bus.shutdown();
+            assertEquals(i + 1, calls.get(), "Only the listener of the current bus is called");
+        }
+    }
+
+    @Test
+    void shutDownIdsDontReachNewBuses() throws Exception {
+        final IEventBus old = BusBuilder.builder().build();
+        final int oldID = busID(old);
+        old.shutdown();
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.addListener(EventPriority.NORMAL, false, TestEvent.class, e -> {});
+
+        // what a post or registration racing with the shutdown would still hold on to
+        final ListenerList list = new TestEvent().getListenerList();
+        assertEquals(oldID & 0xFFFF, busID(bus) & 0xFFFF, "The slot of the old bus is reused");
+        assertFalse(list.hasListeners(oldID));
+        assertEquals(0, list.getListeners(oldID).length);
+        assertThrows(IllegalStateException.class, () -> list.register(oldID, EventPriority.NORMAL, e -> {}));
+        assertTrue(bus.hasListeners(TestEvent.class));
+        bus.shutdown();
+    }
+
+    private static int busID(IEventBus bus) throws ReflectiveOperationException {
+        final Field field = EventBus.class.getDeclaredField("busID");
+        field.setAccessible(true);
+        return field.getInt(bus);
+    }
+
+    // faked asm processing for easy testing
+    public static class TestEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.*;
+import net.minecraftforge.eventbus.processor.SubscriberIndexProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubscriberIndexTest {
+    public static final List<String> CALLS = new ArrayList<>();
+
+    private static final String SUBSCRIBER =
+            "package indexed;\n" +
+            "import net.minecraftforge.eventbus.api.*;\n" +
+            "import net.minecraftforge.eventbus.test.SubscriberIndexTest;\n" +
+            "public class Subscriber {\n" +
+            "    @SubscribeEvent(priority = EventPriority.HIGH)\n" +
+            "    public void onEvent(SubscriberIndexTest.IndexEvent event) { SubscriberIndexTest.CALLS.add(\"instance:\" + event.getPhase()); }\n" +
+            "    @SubscribeEvent(receiveCanceled = true)\n" +
+            "    public void onCanceled(SubscriberIndexTest.IndexEvent event) { SubscriberIndexTest.CALLS.add(\"canceled:\" + event.isCanceled()); }\n" +
+            "    @SubscribeEvent\n" +
+            "    public void onGeneric(SubscriberIndexTest.ValueEvent<String> event) { SubscriberIndexTest.CALLS.add(\"generic\"); }\n" +
+            "    @SubscribeEvent\n" +
+            "    public static void onStatic(SubscriberIndexTest.IndexEvent event) { SubscriberIndexTest.CALLS.add(\"static\"); }\n" +
+            "}\n";
+
+    private final StringWriter diagnostics = new StringWriter();
+    private final List<Path> outputs = new ArrayList<>();
+    private final List<URLClassLoader> loaders = new ArrayList<>();
+
+    public SubscriberIndexTest() {
+        CALLS.clear();
+    }
+
+    @Test
+    void indexIsUsedForRegistration() throws Exception {
+        ClassLoader loader = compile(SUBSCRIBER);
+        Class<?> subscriber = Class.forName("indexed.Subscriber", true, loader);
+        assertTrue(ISubscriberIndex.class.isAssignableFrom(Class.forName("indexed.Subscriber" + ISubscriberIndex.SUFFIX, false, loader)));
+
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.register(subscriber.getConstructor().newInstance());
+        bus.post(new IndexEvent());
+        assertIterableEquals(Arrays.asList("instance:HIGH", "canceled:false"), CALLS);
+
+        CALLS.clear();
+        bus.addListener(EventPriority.HIGHEST, false, IndexEvent.class, e -> e.setCanceled(true));
+        bus.post(new IndexEvent());
+        bus.post(new ValueEvent<>(Integer.class));
+        bus.post(new ValueEvent<>(String.class));
+        assertIterableEquals(Arrays.asList("canceled:true", "generic"), CALLS);
+
+        CALLS.clear();
+        final IEventBus staticBus = BusBuilder.builder().build();
+        staticBus.register(subscriber);
+        staticBus.post(new IndexEvent());
+        assertIterableEquals(Arrays.asList("static"), CALLS);
+    }
+
+    @Test
+    void privateSubscribersAreLeftToReflection() throws Exception {
+        assertLeftToReflection(SUBSCRIBER.replace("    public void onEvent", "    private void onEvent"));
+    }
+
+    @Test
+    void packagePrivateSubscribersAreLeftToReflection() throws Exception {
+        // Reflection only finds public methods, the index must not make more subscribers fire
+        assertLeftToReflection(SUBSCRIBER.replace("    public void onEvent", "    void onEvent"));
+    }
+
+    private void assertLeftToReflection(String source) throws Exception {
+        ClassLoader loader = compile(source);
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("indexed.Subscriber" + ISubscriberIndex.SUFFIX, false, loader));
+        assertTrue(diagnostics.toString().contains("No subscriber index generated for indexed.Subscriber"), diagnostics.toString());
+
+        final IEventBus bus = BusBuilder.builder().build();
+        bus.register(Class.forName("indexed.Subscriber", true, loader).getConstructor().newInstance());
+        bus.post(new IndexEvent());
+        assertIterableEquals(Arrays.asList("canceled:false"), CALLS);
+    }
+
+    @Test
+    void checkedExceptionsAreRethrown() throws Exception {
+        ClassLoader loader = compile(
+                "package indexed;\n" +
+                "import net.minecraftforge.eventbus.api.*;\n" +
+                "import net.minecraftforge.eventbus.test.SubscriberIndexTest;\n" +
+                "public class Subscriber {\n" +
+                "    @SubscribeEvent\n" +
+                "    public void onEvent(SubscriberIndexTest.IndexEvent event) throws java.io.IOException { throw new java.io.IOException(\"checked\"); }\n" +
+                "}\n");
+        assertTrue(ISubscriberIndex.class.isAssignableFrom(Class.forName("indexed.Subscriber" + ISubscriberIndex.SUFFIX, false, loader)));
+
+        final IEventBus bus = BusBuilder.builder().setExceptionHandler((b, event, listeners, index, throwable) -> {}).build();
+        bus.register(Class.forName("indexed.Subscriber", true, loader).getConstructor().newInstance());
+        final RuntimeException thrown = assertThrows(RuntimeException.class, () -> bus.post(new IndexEvent()));
+        assertEquals(java.io.IOException.class, thrown.getCause().getClass());
+    }
+
+    @AfterEach
+    void deleteOutputs() throws IOException {
+        for (URLClassLoader loader : loaders) {
+            loader.close();
+        }
+        for (Path out : outputs) {
+            try (Stream<Path> files = Files.walk(out)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private ClassLoader compile(String source) throws IOException {
+        Path out = Files.createTempDirectory("eventbus-index");
+        outputs.add(out);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject file = new SimpleJavaFileObject(java.net.URI.create("string:///indexed/Subscriber.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavaCompiler.CompilationTask task = compiler.getTask(diagnostics, null, null,
+                Arrays.asList("-d", out.toString(), "-classpath", System.getProperty("java.class.path")), null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new SubscriberIndexProcessor()));
+        assertTrue(task.call(), diagnostics.toString());
+        URLClassLoader loader = new URLClassLoader(new URL[] { out.toUri().toURL() }, getClass().getClassLoader());
+        loaders.add(loader);
+        return loader;
+    }
+
+    // faked asm processing for easy testing
+    public static class IndexEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+
+        @Override
+        public boolean isCancelable() {
+            return true;
+        }
+    }
+
+    public static class ValueEvent<T> extends GenericEvent<T> {
+        private static ListenerList LISTENER_LIST;
+        public ValueEvent() {
+            super(null);
+        }
+        public ValueEvent(Class<T> type) {
+            super(type);
+        }
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Top level so {@link WrapperCacheTest} can load a second copy of it in its own loader.
+ */
+public class WrapperCacheSubscriber {
+    public int hits;
+
+    @SubscribeEvent
+    public void onEvent(WrapperCacheTest.TestEvent event) {
+        hits++;
+    }
+}
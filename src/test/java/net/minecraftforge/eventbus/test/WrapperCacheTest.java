@@ -0,0 +1,128 @@
+package net.minecraftforge.eventbus.test;
+
+import net.minecraftforge.eventbus.ASMEventHandler;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WrapperCacheTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void concurrentHandlersShareOneWrapper() throws Exception {
+        final Method method = WrapperCacheSubscriber.class.getMethod("onEvent", TestEvent.class);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<Class<?>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return new ASMEventHandler(new WrapperCacheSubscriber(), method, false).createWrapper(method);
+            }));
+        }
+        start.countDown();
+        final Class<?> wrapper = futures.get(0).get();
+        for (Future<Class<?>> future : futures) {
+            assertSame(wrapper, future.get());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void classesOfOneLoaderShareAWrapperLoader() throws Exception {
+        final Method first = WrapperCacheSubscriber.class.getMethod("onEvent", TestEvent.class);
+        final Method second = OtherSubscriber.class.getMethod("onEvent", TestEvent.class);
+        final ClassLoader loader = new ASMEventHandler(new WrapperCacheSubscriber(), first, false).createWrapper(first).getClassLoader();
+        assertSame(loader, new ASMEventHandler(new OtherSubscriber(), second, false).createWrapper(second).getClassLoader());
+        assertSame(WrapperCacheTest.class.getClassLoader(), loader.getParent());
+    }
+
+    @Test
+    void wrappersAreUnloadedWithTheirClass() throws Exception {
+        final WeakReference<Class<?>> subscriber = registerThrowaway();
+        for (int i = 0; i < 20 && subscriber.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(subscriber.get(), "Nothing the cache holds keeps the subscriber class loaded");
+    }
+
+    private static WeakReference<Class<?>> registerThrowaway() throws Exception {
+        final ClassLoader loader = new SubscriberLoader();
+        final Class<?> type = loader.loadClass(WrapperCacheSubscriber.class.getName());
+        final Object target = type.getConstructor().newInstance();
+        new ASMEventHandler(target, type.getMethod("onEvent", TestEvent.class), false).invoke(new TestEvent());
+        assertEquals(1, type.getField("hits").getInt(target));
+        return new WeakReference<>(type);
+    }
+
+    /**
+     * Loads its own copy of {@link WrapperCacheSubscriber}, everything else comes from the parent.
+     */
+    static class SubscriberLoader extends ClassLoader {
+        SubscriberLoader() {
+            super(WrapperCacheTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(WrapperCacheSubscriber.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = in.read(buffer)) != -1; ) {
+                        out.write(buffer, 0, read);
+                    }
+                    return defineClass(name, out.toByteArray(), 0, out.size());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    public static class OtherSubscriber {
+        @SubscribeEvent
+        public void onEvent(TestEvent event) {}
+    }
+
+    // faked asm processing for easy testing
+    public static class TestEvent extends Event {
+        private static ListenerList LISTENER_LIST;
+        protected void setup()
+        {
+            super.setup();
+            if (LISTENER_LIST != null)
+            {
+                return;
+            }
+            LISTENER_LIST = new ListenerList(super.getListenerList());
+        }
+        @Override
+        public ListenerList getListenerList() {
+            return LISTENER_LIST;
+        }
+    }
+}